@@ -0,0 +1,107 @@
+package com.trimble.area.geojson.geometry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trimble.area.geojson.config.GeometryConfig;
+import com.trimble.area.geojson.model.MapsPolygon;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.util.GeometryFixer;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
+import org.locationtech.jts.io.WKTWriter;
+
+/**
+ * Boundary fixtures of the benchmarks. {@code ca-states.json} is a recorded PC*MILER state answer shipped with the
+ * service; the ZIP grid is synthetic, ZIP-sized squares with jagged shared edges in the shape of a PC*MILER ZIP answer.
+ */
+final class BenchmarkFixtures {
+
+  static final GeometryFactory GEOMETRY_FACTORY = new GeometryConfig().geometryFactory();
+
+  private BenchmarkFixtures() {
+  }
+
+  static List<MapsPolygon> states() {
+    try (InputStream in = BenchmarkFixtures.class.getResourceAsStream("/ca-states.json")) {
+      return new ObjectMapper().readValue(in, new TypeReference<>() {
+      });
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  static List<MapsPolygon> zipGrid(int count) {
+    WKTWriter wktWriter = new WKTWriter(2);
+    List<MapsPolygon> polygons = new ArrayList<>(count);
+    int side = (int) Math.ceil(Math.sqrt(count));
+    double size = 0.1;
+    int edgeVertices = 25;
+    for (int i = 0; i < count; i++) {
+      double minX = -100 + (i % side) * size;
+      double minY = 30 + (i / side) * size;
+      List<Coordinate> ring = new ArrayList<>();
+      for (int k = 0; k < edgeVertices; k++) {
+        ring.add(new Coordinate(minX + size * k / edgeVertices, minY));
+      }
+      for (int k = 0; k < edgeVertices; k++) {
+        ring.add(new Coordinate(minX + size, minY + size * k / edgeVertices));
+      }
+      for (int k = 0; k < edgeVertices; k++) {
+        ring.add(new Coordinate(minX + size - size * k / edgeVertices, minY + size));
+      }
+      for (int k = 0; k < edgeVertices; k++) {
+        ring.add(new Coordinate(minX, minY + size - size * k / edgeVertices));
+      }
+      ring.add(ring.get(0).copy());
+      ring.forEach(GEOMETRY_FACTORY.getPrecisionModel()::makePrecise);
+      MapsPolygon polygon = new MapsPolygon();
+      polygon.setCode(String.format("%05d", i));
+      polygon.setPolygon(wktWriter.write(GEOMETRY_FACTORY.createPolygon(ring.toArray(Coordinate[]::new))));
+      polygons.add(polygon);
+    }
+    return polygons;
+  }
+
+  /**
+   * Parses the polygons the way the PC*MILER provider does, repairing invalid ones.
+   */
+  static List<Geometry> parse(List<MapsPolygon> polygons) {
+    List<Geometry> geometries = new ArrayList<>(polygons.size());
+    try {
+      for (MapsPolygon polygon : polygons) {
+        Geometry geometry = WktParser.read(polygon.getPolygon(), GEOMETRY_FACTORY);
+        geometries.add(geometry.isValid() ? geometry : GeometryFixer.fix(geometry));
+      }
+    } catch (ParseException ex) {
+      throw new IllegalStateException(ex);
+    }
+    return geometries;
+  }
+
+  /**
+   * Parses and repairs the polygons with a JTS {@code WKTReader} into {@code Coordinate} arrays, as before
+   * {@link WktParser}.
+   */
+  static List<Geometry> parseWithWktReader(List<MapsPolygon> polygons) {
+    WKTReader wktReader = new WKTReader(new GeometryFactory(GEOMETRY_FACTORY.getPrecisionModel(),
+        GEOMETRY_FACTORY.getSRID()));
+    List<Geometry> geometries = new ArrayList<>(polygons.size());
+    try {
+      for (MapsPolygon polygon : polygons) {
+        Geometry geometry = wktReader.read(polygon.getPolygon());
+        geometries.add(geometry.isValid() ? geometry : GeometryFixer.fix(geometry));
+      }
+    } catch (ParseException ex) {
+      throw new IllegalStateException(ex);
+    }
+    return geometries;
+  }
+}
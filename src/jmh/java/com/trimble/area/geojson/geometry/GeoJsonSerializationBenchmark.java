@@ -0,0 +1,89 @@
+package com.trimble.area.geojson.geometry;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trimble.area.geojson.model.AreaGeometry;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.io.geojson.GeoJsonWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Serialising a merged polygon to the API response and to its Mongo document, comparing the old
+ * {@code GeoJsonWriter} string plus {@code ObjectMapper} re-parse with the direct {@link GeoJsonGeometryWriter}. Run
+ * with {@code -prof gc} to compare {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GeoJsonSerializationBenchmark {
+
+  @Param({"1000", "100000"})
+  private int vertices;
+
+  private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(1000), 4326);
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final DocumentCodec documentCodec = new DocumentCodec();
+  private Geometry geometry;
+
+  @Setup
+  public void setUp() {
+    int polygons = Math.max(1, vertices / 1000);
+    Polygon[] parts = new Polygon[polygons];
+    for (int p = 0; p < polygons; p++) {
+      Coordinate[] ring = new Coordinate[1001];
+      for (int i = 0; i < 1000; i++) {
+        double angle = 2 * Math.PI * i / 1000;
+        double radius = 0.5 + 0.05 * Math.sin(angle * 37);
+        ring[i] = new Coordinate(-100 + 2 * p + radius * Math.cos(angle), 40 + radius * Math.sin(angle));
+        geometryFactory.getPrecisionModel().makePrecise(ring[i]);
+      }
+      ring[1000] = ring[0].copy();
+      parts[p] = geometryFactory.createPolygon(ring);
+    }
+    geometry = geometryFactory.createMultiPolygon(parts);
+  }
+
+  @Benchmark
+  public byte[] responseViaString() throws Exception {
+    Map<?, ?> reparsed = objectMapper.readValue(new GeoJsonWriter().write(geometry), Map.class);
+    return objectMapper.writeValueAsBytes(reparsed);
+  }
+
+  @Benchmark
+  public byte[] responseDirect() throws Exception {
+    return objectMapper.writeValueAsBytes(new AreaGeometry(geometry));
+  }
+
+  @Benchmark
+  public int documentViaString() throws Exception {
+    Map<String, Object> reparsed = objectMapper.readValue(new GeoJsonWriter().write(geometry), Map.class);
+    BasicOutputBuffer buffer = new BasicOutputBuffer();
+    documentCodec.encode(new BsonBinaryWriter(buffer), new Document(reparsed), EncoderContext.builder().build());
+    return buffer.getPosition();
+  }
+
+  @Benchmark
+  public int documentDirect() {
+    BasicOutputBuffer buffer = new BasicOutputBuffer();
+    GeoJsonGeometryWriter.write(geometry, new BsonBinaryWriter(buffer));
+    return buffer.getPosition();
+  }
+}
@@ -0,0 +1,82 @@
+package com.trimble.area.geojson.geometry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.trimble.area.geojson.model.MapsPolygon;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.precision.GeometryPrecisionReducer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * The stages of a merge on the synthetic ZIP grid: parsing the vendor WKT, the include union, subtracting every tenth
+ * ZIP and the precision reduction a floating-point union would need before it is stored. Run with {@code -prof gc} to
+ * see {@code gc.alloc.rate.norm} per stage.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MergePipelineBenchmark {
+
+  @Param({"10", "100", "1000", "10000"})
+  private int count;
+
+  private final GeometryFactory geometryFactory = BenchmarkFixtures.GEOMETRY_FACTORY;
+  private UnionEngine unionEngine;
+  private ExclusionClipper exclusionClipper;
+  private List<MapsPolygon> polygons;
+  private List<Geometry> zips;
+  private Geometry include;
+  private Geometry exclude;
+  private Geometry floatingUnion;
+
+  @Setup
+  public void setUp() {
+    unionEngine = new UnionEngine(geometryFactory, 0, 64);
+    exclusionClipper = new ExclusionClipper(geometryFactory);
+    polygons = BenchmarkFixtures.zipGrid(count);
+    zips = BenchmarkFixtures.parse(polygons);
+    include = unionEngine.union(zips, true);
+    List<Geometry> excluded = new ArrayList<>();
+    for (int i = 0; i < zips.size(); i += 10) {
+      excluded.add(zips.get(i));
+    }
+    exclude = unionEngine.union(excluded, true);
+    floatingUnion = new GeometryFactory().buildGeometry(zips).union();
+  }
+
+  @TearDown
+  public void tearDown() {
+    unionEngine.destroy();
+  }
+
+  @Benchmark
+  public List<Geometry> wktParse() {
+    return BenchmarkFixtures.parse(polygons);
+  }
+
+  @Benchmark
+  public Geometry union() {
+    return unionEngine.union(zips, true);
+  }
+
+  @Benchmark
+  public Geometry includeMinusExclude() {
+    return exclusionClipper.difference(include, exclude);
+  }
+
+  @Benchmark
+  public Geometry precisionReduction() {
+    return GeometryPrecisionReducer.reduce(floatingUnion, geometryFactory.getPrecisionModel());
+  }
+}
@@ -0,0 +1,68 @@
+package com.trimble.area.geojson.geometry;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trimble.area.geojson.model.AreaGeometry;
+import com.trimble.area.geojson.model.MapsPolygon;
+import org.locationtech.jts.geom.Geometry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * The merge stages on the recorded {@code ca-states.json} answer, whose real coastlines have far more vertices per
+ * boundary than the ZIP grid: parsing and repair, the union of all provinces and the GeoJSON response. The
+ * {@code WKTReader} parse is kept for comparison with {@link WktParser}; {@code -prof gc} shows the allocation per
+ * vertex of each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RecordedBoundaryBenchmark {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private UnionEngine unionEngine;
+  private List<MapsPolygon> polygons;
+  private List<Geometry> states;
+  private Geometry union;
+
+  @Setup
+  public void setUp() {
+    unionEngine = new UnionEngine(BenchmarkFixtures.GEOMETRY_FACTORY, 0, 64);
+    polygons = BenchmarkFixtures.states();
+    states = BenchmarkFixtures.parse(polygons);
+    union = unionEngine.union(states, true);
+  }
+
+  @TearDown
+  public void tearDown() {
+    unionEngine.destroy();
+  }
+
+  @Benchmark
+  public List<Geometry> wktParse() {
+    return BenchmarkFixtures.parse(polygons);
+  }
+
+  @Benchmark
+  public List<Geometry> wktParseWithWktReader() {
+    return BenchmarkFixtures.parseWithWktReader(polygons);
+  }
+
+  @Benchmark
+  public Geometry union() {
+    return unionEngine.union(states, true);
+  }
+
+  @Benchmark
+  public byte[] geoJsonResponse() throws Exception {
+    return objectMapper.writeValueAsBytes(new AreaGeometry(union));
+  }
+}
@@ -0,0 +1,57 @@
+package com.trimble.area.geojson.geometry;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Scaling of {@link UnionEngine} with the fork-join parallelism against the single-threaded
+ * {@code buildGeometry(...).union()} it replaces, on a grid of ZIP-sized squares with jagged shared edges.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UnionEngineBenchmark {
+
+  @Param({"1", "2", "4", "8"})
+  private int parallelism;
+
+  @Param({"1000", "10000"})
+  private int count;
+
+  private final GeometryFactory geometryFactory = BenchmarkFixtures.GEOMETRY_FACTORY;
+  private UnionEngine unionEngine;
+  private List<Geometry> geometries;
+
+  @Setup
+  public void setUp() {
+    unionEngine = new UnionEngine(geometryFactory, parallelism, 64);
+    geometries = BenchmarkFixtures.parse(BenchmarkFixtures.zipGrid(count));
+  }
+
+  @TearDown
+  public void tearDown() {
+    unionEngine.destroy();
+  }
+
+  @Benchmark
+  public Geometry unionEngine() {
+    return unionEngine.union(geometries, true);
+  }
+
+  @Benchmark
+  public Geometry singleThreadedUnion() {
+    return geometryFactory.buildGeometry(geometries).union();
+  }
+}
@@ -0,0 +1,72 @@
+package com.trimble.area.geojson.boundary;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.trimble.area.geojson.model.BoundaryType;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serves the {@link BoundaryType#LAYER} boundaries published by the base layer job and tells the planner which layers
+ * exist. The layers of the previous publication stay readable, so areas planned just before a rebuild still resolve.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class BaseLayerProvider implements BoundaryProvider {
+
+  private volatile Layers current = new Layers(Map.of(), Map.of());
+  private volatile Map<String, Geometry> previous = Map.of();
+
+  @Override
+  public Map<String, Geometry> getBoundaries(BoundaryType type, Collection<String> codes) {
+    if (type != BoundaryType.LAYER) {
+      return Map.of();
+    }
+    Layers layers = current;
+    Map<String, Geometry> previousGeometries = previous;
+    Map<String, Geometry> boundaries = new HashMap<>();
+    for (String code : codes) {
+      Geometry geometry = layers.geometries().getOrDefault(code, previousGeometries.get(code));
+      if (geometry != null) {
+        boundaries.put(code, geometry);
+      }
+    }
+    return boundaries;
+  }
+
+  /**
+   * The current layer with this id, e.g. {@code zip3:750}, or null.
+   */
+  public Layer get(String id) {
+    return current.byId().get(id);
+  }
+
+  public boolean isEmpty() {
+    return current.byId().isEmpty();
+  }
+
+  public synchronized void publish(List<Layer> layers) {
+    Map<String, Layer> byId = new HashMap<>();
+    Map<String, Geometry> geometries = new HashMap<>();
+    for (Layer layer : layers) {
+      byId.put(layer.id(), layer);
+      geometries.put(layer.code(), layer.geometry());
+    }
+    previous = current.geometries();
+    current = new Layers(Map.copyOf(byId), Map.copyOf(geometries));
+  }
+
+  /**
+   * A published layer: its versioned boundary code, the sorted codes of the boundaries it unions and their union.
+   */
+  public record Layer(String id, String code, List<String> members, Geometry geometry) {
+  }
+
+  private record Layers(Map<String, Layer> byId, Map<String, Geometry> geometries) {
+  }
+}
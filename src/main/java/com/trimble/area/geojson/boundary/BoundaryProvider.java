@@ -0,0 +1,17 @@
+package com.trimble.area.geojson.boundary;
+
+import java.util.Collection;
+import java.util.Map;
+
+import com.trimble.area.geojson.model.BoundaryType;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * Source of boundary geometries. Providers are consulted in order and each one only sees the codes its predecessors
+ * could not resolve. A code mapped to an empty geometry is known not to exist; a code left out of the result is
+ * passed on to the next provider.
+ */
+public interface BoundaryProvider {
+
+  Map<String, Geometry> getBoundaries(BoundaryType type, Collection<String> codes);
+}
@@ -0,0 +1,128 @@
+package com.trimble.area.geojson.boundary;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.trimble.area.geojson.metrics.GeoMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Application-wide scheduler for boundary fetches. Tasks run on virtual threads; {@link #call} bounds the number of
+ * concurrent vendor calls across all merges and {@link #invokeAll} bounds how many tasks a single merge runs at once.
+ */
+@Slf4j
+@Component
+public class FetchScheduler implements DisposableBean {
+
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private final AtomicInteger queued = new AtomicInteger();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final Semaphore permits;
+  private final int perRequestConcurrency;
+
+  public FetchScheduler(@Value("${geo.fetch.max-concurrency:32}") int maxConcurrency,
+                        @Value("${geo.fetch.per-request-concurrency:8}") int perRequestConcurrency,
+                        GeoMetrics geoMetrics) {
+    this.permits = new Semaphore(maxConcurrency, true);
+    this.perRequestConcurrency = perRequestConcurrency;
+    geoMetrics.gauge("geo.fetch.queued", "Boundary fetches waiting for a concurrency permit", queued,
+        AtomicInteger::get);
+    geoMetrics.gauge("geo.fetch.in-flight", "Boundary fetches currently calling the vendor", inFlight,
+        AtomicInteger::get);
+  }
+
+  /**
+   * Runs a vendor call on the calling thread once one of the global permits is free.
+   */
+  public <T> T call(Callable<T> task) throws Exception {
+    queued.incrementAndGet();
+    try {
+      permits.acquire();
+    } finally {
+      queued.decrementAndGet();
+    }
+    inFlight.incrementAndGet();
+    try {
+      return task.call();
+    } finally {
+      inFlight.decrementAndGet();
+      permits.release();
+    }
+  }
+
+  /**
+   * Runs a task on its own virtual thread; the task is expected to take a global permit through {@link #call}.
+   */
+  public void execute(Runnable task) {
+    executor.execute(task);
+  }
+
+  /**
+   * Like {@link #execute}, but cancelling the returned future interrupts the task, so it gives its permit back.
+   */
+  public Future<?> submit(Runnable task) {
+    return executor.submit(task);
+  }
+
+  /**
+   * Runs the tasks of one request concurrently, at most {@code per-request-concurrency} at a time, and returns their
+   * results in completion order. The first failure cancels the remaining tasks and is rethrown.
+   */
+  public <T> List<T> invokeAll(Collection<? extends Callable<T>> tasks) {
+    Semaphore requestPermits = new Semaphore(perRequestConcurrency);
+    ExecutorCompletionService<T> completionService = new ExecutorCompletionService<>(executor);
+    List<Future<T>> futures = new ArrayList<>(tasks.size());
+    for (Callable<T> task : tasks) {
+      futures.add(completionService.submit(() -> {
+        requestPermits.acquire();
+        try {
+          return task.call();
+        } finally {
+          requestPermits.release();
+        }
+      }));
+    }
+    List<T> results = new ArrayList<>(tasks.size());
+    try {
+      for (int i = 0; i < futures.size(); i++) {
+        results.add(completionService.take().get());
+      }
+      return results;
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while fetching boundaries", ex);
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException("Error while fetching boundaries " + ex.getCause().getMessage(), ex.getCause());
+    } finally {
+      futures.forEach(future -> future.cancel(true));
+    }
+  }
+
+  public int getQueued() {
+    return queued.get();
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdownNow();
+  }
+}
@@ -0,0 +1,167 @@
+package com.trimble.area.geojson.boundary;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trimble.area.geojson.geometry.WktParser;
+import com.trimble.area.geojson.model.BoundaryType;
+import com.trimble.area.geojson.model.MapsPolygon;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.util.GeometryFixer;
+import org.locationtech.jts.io.ParseException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serves boundaries from bundled or operator-supplied files in the {@link MapsPolygon} JSON shape. Sources are
+ * configured as {@code TYPE=location} pairs and compiled once into a {@link MappedBoundaryStore} per type.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class LocalBoundaryProvider implements BoundaryProvider {
+
+  private final ObjectMapper objectMapper;
+  private final GeometryFactory geometryFactory;
+  private final ResourceLoader resourceLoader;
+  private final Map<BoundaryType, MappedBoundaryStore> stores = new EnumMap<>(BoundaryType.class);
+  @Value("${geo.boundary.local.sources:STATE=classpath:ca-states.json}")
+  private List<String> sources;
+  @Value("${geo.boundary.local.store-dir:${java.io.tmpdir}/geo-boundaries}")
+  private String storeDir;
+
+  @PostConstruct
+  public void load() {
+    Map<BoundaryType, List<Resource>> resources = new EnumMap<>(BoundaryType.class);
+    for (String source : sources) {
+      String[] parts = source.trim().split("=", 2);
+      if (parts.length != 2) {
+        log.warn("Boundary - Ignoring malformed local source {}", source);
+        continue;
+      }
+      Resource resource = resourceLoader.getResource(parts[1].trim());
+      if (!resource.exists()) {
+        log.warn("Boundary - Local source {} not found", source);
+        continue;
+      }
+      BoundaryType type;
+      try {
+        type = BoundaryType.valueOf(parts[0].trim().toUpperCase());
+      } catch (IllegalArgumentException ex) {
+        log.warn("Boundary - Ignoring local source {} of unknown type", source);
+        continue;
+      }
+      resources.computeIfAbsent(type, k -> new ArrayList<>()).add(resource);
+    }
+    resources.forEach(this::load);
+  }
+
+  /**
+   * Opens or compiles the store of one type. A type whose store cannot be built, e.g. because the store directory is
+   * not writable, is left out and served by the next provider.
+   */
+  private void load(BoundaryType type, List<Resource> typeResources) {
+    long startTime = System.currentTimeMillis();
+    Path basePath = Path.of(storeDir).resolve(type.name().toLowerCase());
+    MappedBoundaryStore store;
+    try {
+      String fingerprint = fingerprint(typeResources);
+      store = MappedBoundaryStore.open(basePath, fingerprint, geometryFactory);
+      if (store == null) {
+        store = MappedBoundaryStore.write(basePath, fingerprint, readSources(type, typeResources), geometryFactory);
+      }
+    } catch (RuntimeException ex) {
+      log.warn("Boundary - Skipping local {} boundaries, the store under {} could not be built: {}", type, basePath,
+          ex.getMessage(), ex);
+      return;
+    }
+    if (store == null) {
+      log.warn("Boundary - Skipping local {} boundaries, the store under {} could not be opened", type, basePath);
+      return;
+    }
+    stores.put(type, store);
+    log.info("Boundary - Loaded {} local {} boundaries in {} ms", store.size(), type,
+        System.currentTimeMillis() - startTime);
+  }
+
+  @Override
+  public Map<String, Geometry> getBoundaries(BoundaryType type, Collection<String> codes) {
+    MappedBoundaryStore store = stores.get(type);
+    if (store == null) {
+      return Map.of();
+    }
+    Map<String, Geometry> boundaries = new HashMap<>();
+    for (String code : codes) {
+      Geometry geometry = store.get(code);
+      if (geometry != null) {
+        boundaries.put(code, geometry);
+      }
+    }
+    return boundaries;
+  }
+
+  public MappedBoundaryStore getStore(BoundaryType type) {
+    return stores.get(type);
+  }
+
+  private Map<String, Geometry> readSources(BoundaryType type, List<Resource> resources) {
+    Map<String, Geometry> geometries = new LinkedHashMap<>();
+    for (Resource resource : resources) {
+      // Reading from the stream unwraps a top-level array, which a freshly created parser would not
+      try (InputStream in = resource.getInputStream();
+           MappingIterator<MapsPolygon> polygons = objectMapper.readerFor(MapsPolygon.class).readValues(in)) {
+        while (polygons.hasNext()) {
+          MapsPolygon polygon = polygons.next();
+          String code = type == BoundaryType.STATE ? polygon.getAbbreviation() : polygon.getCode();
+          if (Objects.isNull(code) || Objects.isNull(polygon.getPolygon())) {
+            continue;
+          }
+          Geometry geometry = WktParser.read(polygon.getPolygon(), geometryFactory);
+          if (!geometry.isValid()) {
+            geometry = GeometryFixer.fix(geometry);
+          }
+          geometries.put(code, geometry);
+        }
+      } catch (IOException ex) {
+        throw new UncheckedIOException("Error while reading boundary source " + resource, ex);
+      } catch (ParseException ex) {
+        throw new IllegalStateException("Invalid WKT in boundary source " + resource, ex);
+      }
+    }
+    return geometries;
+  }
+
+  private String fingerprint(List<Resource> resources) {
+    StringBuilder fingerprint = new StringBuilder();
+    for (Resource resource : resources) {
+      fingerprint.append(resource.getDescription()).append(';');
+      try {
+        fingerprint.append(resource.contentLength()).append(';').append(resource.lastModified()).append('|');
+      } catch (IOException ex) {
+        fingerprint.append("unknown|");
+      }
+    }
+    return fingerprint.toString();
+  }
+}
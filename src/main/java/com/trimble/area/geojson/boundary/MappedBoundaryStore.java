@@ -0,0 +1,146 @@
+package com.trimble.area.geojson.boundary;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKBReader;
+import org.locationtech.jts.io.WKBWriter;
+
+/**
+ * Read-only boundary store for one boundary type: a data file of concatenated WKB records that is memory-mapped, and
+ * an index file mapping each code to the offset and length of its record. The index also carries the fingerprint of
+ * the sources the store was compiled from, so an unchanged store is reused at startup without re-parsing any WKT.
+ */
+public class MappedBoundaryStore {
+
+  private static final int MAGIC = 0x47454f42;
+  private static final int FORMAT_VERSION = 1;
+  private final GeometryFactory geometryFactory;
+  private final Map<String, long[]> index;
+  private final MappedByteBuffer data;
+
+  private MappedBoundaryStore(GeometryFactory geometryFactory, Map<String, long[]> index, MappedByteBuffer data) {
+    this.geometryFactory = geometryFactory;
+    this.index = index;
+    this.data = data;
+  }
+
+  public Geometry get(String code) {
+    long[] entry = index.get(code);
+    if (entry == null) {
+      return null;
+    }
+    byte[] wkb = new byte[(int) entry[1]];
+    data.get((int) entry[0], wkb);
+    try {
+      return new WKBReader(geometryFactory).read(wkb);
+    } catch (ParseException e) {
+      throw new IllegalStateException("Corrupt boundary record " + code, e);
+    }
+  }
+
+  public boolean contains(String code) {
+    return index.containsKey(code);
+  }
+
+  public Set<String> codes() {
+    return index.keySet();
+  }
+
+  public int size() {
+    return index.size();
+  }
+
+  /**
+   * Opens the store under {@code basePath} if it was compiled from sources with the given fingerprint.
+   */
+  public static MappedBoundaryStore open(Path basePath, String fingerprint, GeometryFactory geometryFactory) {
+    Path indexPath = indexPath(basePath);
+    Path dataPath = dataPath(basePath);
+    if (!Files.exists(indexPath) || !Files.exists(dataPath)) {
+      return null;
+    }
+    try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexPath)))) {
+      if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !fingerprint.equals(in.readUTF())) {
+        return null;
+      }
+      int count = in.readInt();
+      Map<String, long[]> index = new HashMap<>(count * 2);
+      for (int i = 0; i < count; i++) {
+        index.put(in.readUTF(), new long[] {in.readLong(), in.readInt()});
+      }
+      return new MappedBoundaryStore(geometryFactory, index, map(dataPath));
+    } catch (IOException ex) {
+      return null;
+    }
+  }
+
+  /**
+   * Writes the geometries as WKB records under {@code basePath} and opens the result.
+   */
+  public static MappedBoundaryStore write(Path basePath, String fingerprint, Map<String, Geometry> geometries,
+                                          GeometryFactory geometryFactory) {
+    Path dataPath = dataPath(basePath);
+    Path indexPath = indexPath(basePath);
+    try {
+      Files.createDirectories(basePath.getParent());
+      Path dataTmp = Files.createTempFile(basePath.getParent(), "boundary", ".tmp");
+      Path indexTmp = Files.createTempFile(basePath.getParent(), "boundary", ".tmp");
+      WKBWriter writer = new WKBWriter(2);
+      long offset = 0;
+      try (var dataOut = new BufferedOutputStream(Files.newOutputStream(dataTmp));
+           var indexOut = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexTmp)))) {
+        indexOut.writeInt(MAGIC);
+        indexOut.writeInt(FORMAT_VERSION);
+        indexOut.writeUTF(fingerprint);
+        indexOut.writeInt(geometries.size());
+        for (Map.Entry<String, Geometry> entry : geometries.entrySet()) {
+          byte[] wkb = writer.write(entry.getValue());
+          dataOut.write(wkb);
+          indexOut.writeUTF(entry.getKey());
+          indexOut.writeLong(offset);
+          indexOut.writeInt(wkb.length);
+          offset += wkb.length;
+        }
+      }
+      if (offset > Integer.MAX_VALUE) {
+        throw new IllegalStateException("Boundary store exceeds 2 GB: " + dataPath);
+      }
+      Files.move(dataTmp, dataPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      Files.move(indexTmp, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Error while writing boundary store " + basePath, ex);
+    }
+    return open(basePath, fingerprint, geometryFactory);
+  }
+
+  private static MappedByteBuffer map(Path dataPath) throws IOException {
+    try (FileChannel channel = FileChannel.open(dataPath, StandardOpenOption.READ)) {
+      return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+  }
+
+  private static Path dataPath(Path basePath) {
+    return basePath.resolveSibling(basePath.getFileName() + ".wkb");
+  }
+
+  private static Path indexPath(Path basePath) {
+    return basePath.resolveSibling(basePath.getFileName() + ".idx");
+  }
+}
@@ -0,0 +1,66 @@
+package com.trimble.area.geojson.boundary;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Stream;
+
+import com.trimble.area.geojson.model.BoundaryType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fetches boundaries from PC*MILER through the {@link PcMilerRequestCoalescer}. Codes the vendor answers without a
+ * polygon are returned as empty geometries; codes of a failed batch are left out so they are retried on the next merge.
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class PcMilerBoundaryProvider implements BoundaryProvider {
+
+  private final PcMilerRequestCoalescer requestCoalescer;
+  private final FetchScheduler fetchScheduler;
+
+  @Override
+  public Map<String, Geometry> getBoundaries(BoundaryType type, Collection<String> codes) {
+    // Base layers only come from the BaseLayerProvider, and cities from local sources until PC*MILER offers them
+    if (codes.isEmpty() || type == BoundaryType.LAYER || type == BoundaryType.CITY) {
+      return Map.of();
+    }
+    // Chunks only bound how much of one merge is queued at a time; vendor batches are formed by the coalescer
+    List<String> codeList = new ArrayList<>(codes);
+    int chunkSize = requestCoalescer.getBatchSize(type);
+    List<Callable<Map<String, Geometry>>> chunks = Stream.iterate(0, n -> n + chunkSize)
+        .limit((codeList.size() + chunkSize - 1) / chunkSize)
+        .map(start -> (Callable<Map<String, Geometry>>) () ->
+            fetchChunk(type, codeList.subList(start, Math.min(start + chunkSize, codeList.size()))))
+        .toList();
+    Map<String, Geometry> fetched = new HashMap<>();
+    fetchScheduler.invokeAll(chunks).forEach(fetched::putAll);
+    return fetched;
+  }
+
+  private Map<String, Geometry> fetchChunk(BoundaryType type, List<String> codes) throws InterruptedException {
+    Map<String, CompletableFuture<Geometry>> futures = new HashMap<>();
+    codes.forEach(code -> futures.put(code, requestCoalescer.request(type, code)));
+    Map<String, Geometry> fetched = new HashMap<>();
+    for (Map.Entry<String, CompletableFuture<Geometry>> entry : futures.entrySet()) {
+      try {
+        fetched.put(entry.getKey(), entry.getValue().get());
+      } catch (ExecutionException ex) {
+        // Already logged per batch by the coalescer
+      }
+    }
+    return fetched;
+  }
+}
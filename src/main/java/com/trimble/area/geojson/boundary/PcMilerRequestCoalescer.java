@@ -0,0 +1,281 @@
+package com.trimble.area.geojson.boundary;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.trimble.area.geojson.client.PcMilerClient;
+import com.trimble.area.geojson.geometry.WktParser;
+import com.trimble.area.geojson.metrics.GeoMetrics;
+import com.trimble.area.geojson.model.BoundaryType;
+import com.trimble.area.geojson.model.MapsPolygon;
+import io.micrometer.core.instrument.Counter;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.util.GeometryFixer;
+import org.locationtech.jts.io.ParseException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Coalesces boundary lookups from concurrent merges into shared PC*MILER batches. A code that is already being
+ * fetched returns the in-flight future; new codes are queued per boundary type and flushed when the batch reaches its
+ * size or query-length budget, or when the linger time expires. The batch size grows while the vendor answers within
+ * the target latency and shrinks on slow answers and errors. Vendor calls are retried, hedged and cut off by the
+ * {@link VendorCallGuard}.
+ */
+@Slf4j
+@Component
+public class PcMilerRequestCoalescer implements DisposableBean {
+
+  private final PcMilerClient pcMilerClient;
+  private final FetchScheduler fetchScheduler;
+  private final VendorCallGuard vendorCallGuard;
+  private final GeometryFactory geometryFactory;
+  private final GeoMetrics geoMetrics;
+  private final ScheduledExecutorService lingerTimer = Executors.newSingleThreadScheduledExecutor();
+  private final Map<Key, CompletableFuture<Geometry>> inFlight = new ConcurrentHashMap<>();
+  private final Map<BoundaryType, Lane> lanes = new EnumMap<>(BoundaryType.class);
+  private final Counter coalesced;
+  private final long lingerNanos;
+  private final int maxQueryChars;
+  private final int minBatchSize;
+  private final int maxBatchSize;
+  private final long targetLatencyNanos;
+  @Value("${pc-miler.api.key}")
+  private String token;
+
+  public PcMilerRequestCoalescer(PcMilerClient pcMilerClient, FetchScheduler fetchScheduler,
+                                 VendorCallGuard vendorCallGuard,
+                                 GeometryFactory geometryFactory, GeoMetrics geoMetrics,
+                                 @Value("${geo.fetch.linger:20ms}") Duration linger,
+                                 @Value("${geo.fetch.max-query-chars:4000}") int maxQueryChars,
+                                 @Value("${geo.fetch.min-batch-size:10}") int minBatchSize,
+                                 @Value("${geo.fetch.max-batch-size:200}") int maxBatchSize,
+                                 @Value("${geo.fetch.target-latency:2s}") Duration targetLatency) {
+    this.pcMilerClient = pcMilerClient;
+    this.fetchScheduler = fetchScheduler;
+    this.vendorCallGuard = vendorCallGuard;
+    this.geometryFactory = geometryFactory;
+    this.geoMetrics = geoMetrics;
+    this.lingerNanos = linger.toNanos();
+    this.maxQueryChars = maxQueryChars;
+    this.minBatchSize = minBatchSize;
+    this.maxBatchSize = maxBatchSize;
+    this.targetLatencyNanos = targetLatency.toNanos();
+    this.coalesced = geoMetrics.counter("geo.fetch.coalesced",
+        "Boundary lookups that joined an in-flight vendor request");
+    for (BoundaryType type : BoundaryType.values()) {
+      if (type == BoundaryType.LAYER || type == BoundaryType.CITY) {
+        continue;
+      }
+      Lane lane = new Lane(type, Math.max(minBatchSize, Math.min(maxBatchSize, 100)));
+      lanes.put(type, lane);
+      geoMetrics.gauge("geo.fetch.batch-size", "Current adaptive vendor batch size", lane, l -> l.batchSize,
+          "type", type.name());
+    }
+  }
+
+  /**
+   * Returns the boundary for the code, completing with an empty geometry when the vendor does not know it and
+   * exceptionally when the batch it was part of failed.
+   */
+  public CompletableFuture<Geometry> request(BoundaryType type, String code) {
+    Key key = new Key(type, code);
+    CompletableFuture<Geometry> future = new CompletableFuture<>();
+    CompletableFuture<Geometry> existing = inFlight.putIfAbsent(key, future);
+    if (existing != null) {
+      coalesced.increment();
+      return existing;
+    }
+    lanes.get(type).enqueue(code);
+    return future;
+  }
+
+  public int getBatchSize(BoundaryType type) {
+    return lanes.get(type).batchSize;
+  }
+
+  @Override
+  public void destroy() {
+    lingerTimer.shutdownNow();
+  }
+
+  private void runBatch(Lane lane, List<String> codes) {
+    long startTime = System.nanoTime();
+    try {
+      String endpoint = endpointOf(lane.type);
+      // Every attempt, retry or hedge, takes its own concurrency permit
+      List<MapsPolygon> polygons = vendorCallGuard.call(endpoint, () -> fetchScheduler.call(() ->
+          geoMetrics.observeVendorCall(endpoint, codes.size(), () -> callVendor(lane.type, String.join(",", codes)))));
+      Map<String, Geometry> fetched = new ConcurrentHashMap<>();
+      Map<String, Exception> malformed = new ConcurrentHashMap<>();
+      polygons.parallelStream()
+          .filter(polygon -> Objects.nonNull(polygon.getPolygon()) && Objects.nonNull(codeOf(lane.type, polygon)))
+          .forEach(polygon -> {
+            String code = codeOf(lane.type, polygon);
+            try {
+              fetched.put(code, parse(polygon.getPolygon()));
+            } catch (ParseException | RuntimeException ex) {
+              malformed.put(code, ex);
+            }
+          });
+      // The vendor answered, so the batch size adapts as for a success even if some rows were malformed
+      lane.adapt(true, System.nanoTime() - startTime);
+      if (!malformed.isEmpty()) {
+        log.warn("Polygon - Skipping {} {} polygons with malformed WKT {}", malformed.size(), lane.type,
+            malformed.keySet());
+      }
+      for (String code : codes) {
+        Exception error = malformed.get(code);
+        if (error != null) {
+          // Left out of the merges that asked for it and reported as missing, without failing the rest of the batch
+          complete(lane.type, code).completeExceptionally(error);
+          continue;
+        }
+        Geometry geometry = fetched.get(code);
+        complete(lane.type, code).complete(geometry != null ? geometry : geometryFactory.createEmpty(2));
+      }
+    } catch (Exception ex) {
+      if (ex instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      log.error("Polygon - Error while getting {} polygon {} : {}", lane.type, codes, ex.getMessage());
+      lane.adapt(false, System.nanoTime() - startTime);
+      codes.forEach(code -> complete(lane.type, code).completeExceptionally(ex));
+    }
+  }
+
+  private CompletableFuture<Geometry> complete(BoundaryType type, String code) {
+    CompletableFuture<Geometry> future = inFlight.remove(new Key(type, code));
+    return future != null ? future : new CompletableFuture<>();
+  }
+
+  private List<MapsPolygon> callVendor(BoundaryType type, String codes) {
+    return switch (type) {
+      case STATE -> pcMilerClient.getStatesPolygon(token, codes);
+      case POSTAL -> pcMilerClient.getPostalCodePolygon(token, codes);
+      case COUNTY -> pcMilerClient.getCountyPolygon(token, codes);
+      case CITY, LAYER -> throw new IllegalArgumentException(type + " boundaries are not fetched from PC*MILER");
+    };
+  }
+
+  private String endpointOf(BoundaryType type) {
+    return switch (type) {
+      case STATE -> "state";
+      case POSTAL -> "zip";
+      case COUNTY -> "county";
+      case CITY, LAYER -> throw new IllegalArgumentException(type + " boundaries are not fetched from PC*MILER");
+    };
+  }
+
+  private String codeOf(BoundaryType type, MapsPolygon polygon) {
+    if (type == BoundaryType.STATE) {
+      return polygon.getAbbreviation();
+    }
+    return Objects.nonNull(polygon.getCode()) ? polygon.getCode() : polygon.getName();
+  }
+
+  private Geometry parse(String wkt) throws ParseException {
+    long startTime = System.nanoTime();
+    Geometry geometry = WktParser.read(wkt, geometryFactory);
+    long parsedTime = System.nanoTime();
+    geoMetrics.recordStage("wkt-parse", parsedTime - startTime);
+    if (!geometry.isValid()) {
+      geometry = GeometryFixer.fix(geometry);
+    }
+    geoMetrics.recordStage("fix", System.nanoTime() - parsedTime);
+    return geometry;
+  }
+
+  private record Key(BoundaryType type, String code) {
+  }
+
+  private final class Lane {
+
+    private final BoundaryType type;
+    private final ArrayDeque<String> pending = new ArrayDeque<>();
+    private int pendingChars;
+    private ScheduledFuture<?> lingerTask;
+    private volatile int batchSize;
+
+    private Lane(BoundaryType type, int batchSize) {
+      this.type = type;
+      this.batchSize = batchSize;
+    }
+
+    private void enqueue(String code) {
+      List<String> batch = null;
+      synchronized (this) {
+        pending.add(code);
+        // Each code costs its length plus an encoded comma in the query string
+        pendingChars += code.length() + 3;
+        if (pending.size() >= batchSize || pendingChars >= maxQueryChars) {
+          batch = drain();
+        }
+        if (!pending.isEmpty() && lingerTask == null) {
+          lingerTask = lingerTimer.schedule(this::flush, lingerNanos, TimeUnit.NANOSECONDS);
+        }
+      }
+      if (batch != null) {
+        dispatch(batch);
+      }
+    }
+
+    private void flush() {
+      List<List<String>> batches = new ArrayList<>();
+      synchronized (this) {
+        lingerTask = null;
+        while (!pending.isEmpty()) {
+          batches.add(drain());
+        }
+      }
+      batches.forEach(this::dispatch);
+    }
+
+    private List<String> drain() {
+      List<String> batch = new ArrayList<>();
+      int chars = 0;
+      while (!pending.isEmpty() && batch.size() < batchSize) {
+        int cost = pending.peek().length() + 3;
+        if (!batch.isEmpty() && chars + cost > maxQueryChars) {
+          break;
+        }
+        batch.add(pending.poll());
+        chars += cost;
+      }
+      pendingChars -= chars;
+      if (pending.isEmpty() && lingerTask != null) {
+        lingerTask.cancel(false);
+        lingerTask = null;
+      }
+      return batch;
+    }
+
+    private void dispatch(List<String> batch) {
+      fetchScheduler.execute(() -> runBatch(this, batch));
+    }
+
+    private synchronized void adapt(boolean success, long latencyNanos) {
+      if (!success) {
+        batchSize = Math.max(minBatchSize, batchSize / 2);
+      } else if (latencyNanos > targetLatencyNanos) {
+        batchSize = Math.max(minBatchSize, batchSize * 3 / 4);
+      } else {
+        batchSize = Math.min(maxBatchSize, batchSize + Math.max(1, batchSize / 10));
+      }
+    }
+  }
+}
@@ -0,0 +1,330 @@
+package com.trimble.area.geojson.boundary;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.trimble.area.geojson.metrics.GeoMetrics;
+import feign.FeignException;
+import feign.RetryableException;
+import io.micrometer.core.instrument.Counter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs PC*MILER calls with bounded retries, hedging and a circuit breaker. Timeouts, connection errors, 429 and 5xx
+ * answers are retried with exponential backoff and full jitter. A call still running after the configured quantile of
+ * its endpoint's recent latencies gets a duplicate request, the first answer wins and the other request is cancelled.
+ * Hedges are budgeted to {@code hedge.max-rate} of the requests sent, so a slow vendor does not get twice the load.
+ * Each endpoint has its own
+ * circuit: after {@code failure-threshold} consecutive failed calls to an endpoint its circuit opens and its calls fail
+ * at once until {@code open-duration} has passed; a single trial call then decides whether it closes again.
+ */
+@Slf4j
+@Component
+public class VendorCallGuard {
+
+  private static final int LATENCY_WINDOW = 128;
+  private static final double HEDGE_BURST = 10;
+
+  private final FetchScheduler fetchScheduler;
+  private final int maxAttempts;
+  private final long backoffNanos;
+  private final long maxBackoffNanos;
+  private final double hedgeQuantile;
+  private final long hedgeMinDelayNanos;
+  private final int hedgeMinSamples;
+  private final double hedgeMaxRate;
+  private final int failureThreshold;
+  private final long openNanos;
+  private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+  private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+  private final GeoMetrics geoMetrics;
+  private final Counter retries;
+  private final Counter hedges;
+  private final Counter rejected;
+  private double hedgeTokens;
+
+  public VendorCallGuard(FetchScheduler fetchScheduler, GeoMetrics geoMetrics,
+                         @Value("${geo.fetch.retry.max-attempts:3}") int maxAttempts,
+                         @Value("${geo.fetch.retry.backoff:200ms}") Duration backoff,
+                         @Value("${geo.fetch.retry.max-backoff:2s}") Duration maxBackoff,
+                         @Value("${geo.fetch.hedge.quantile:0.95}") double hedgeQuantile,
+                         @Value("${geo.fetch.hedge.min-delay:250ms}") Duration hedgeMinDelay,
+                         @Value("${geo.fetch.hedge.min-samples:20}") int hedgeMinSamples,
+                         @Value("${geo.fetch.hedge.max-rate:0.05}") double hedgeMaxRate,
+                         @Value("${geo.fetch.circuit.failure-threshold:5}") int failureThreshold,
+                         @Value("${geo.fetch.circuit.open-duration:30s}") Duration openDuration) {
+    this.fetchScheduler = fetchScheduler;
+    this.geoMetrics = geoMetrics;
+    this.maxAttempts = Math.max(1, maxAttempts);
+    this.backoffNanos = backoff.toNanos();
+    this.maxBackoffNanos = maxBackoff.toNanos();
+    this.hedgeQuantile = hedgeQuantile;
+    this.hedgeMinDelayNanos = hedgeMinDelay.toNanos();
+    this.hedgeMinSamples = hedgeMinSamples;
+    this.hedgeMaxRate = Math.max(0, hedgeMaxRate);
+    this.failureThreshold = Math.max(1, failureThreshold);
+    this.openNanos = openDuration.toNanos();
+    this.retries = geoMetrics.counter("geo.fetch.retries", "Vendor calls retried after a transient failure");
+    this.hedges = geoMetrics.counter("geo.fetch.hedged",
+        "Vendor calls that were slower than the hedge delay and got a duplicate request");
+    this.rejected = geoMetrics.counter("geo.fetch.rejected",
+        "Vendor calls failed at once because the circuit was open");
+  }
+
+  /**
+   * Runs the call, whose latency is tracked per endpoint for hedging. Throws {@link CircuitOpenException} without
+   * calling the vendor while the endpoint's circuit is open, and otherwise the failure of the last attempt.
+   */
+  public <T> T call(String endpoint, Callable<T> call) throws Exception {
+    Circuit circuit = circuit(endpoint);
+    circuit.acquire();
+    LatencyWindow window = latencies.computeIfAbsent(endpoint, key -> new LatencyWindow());
+    for (int attempt = 1; ; attempt++) {
+      try {
+        T result = hedged(window, call);
+        circuit.release(true);
+        return result;
+      } catch (InterruptedException ex) {
+        circuit.abandon();
+        throw ex;
+      } catch (Exception ex) {
+        boolean transientFailure = isTransient(ex);
+        if (!transientFailure || attempt >= maxAttempts) {
+          // A rejected request still proves the vendor is reachable
+          circuit.release(!transientFailure);
+          throw ex;
+        }
+        retries.increment();
+        log.warn("Polygon - Vendor call to {} failed, retrying ({}/{}) : {}", endpoint, attempt, maxAttempts,
+            ex.getMessage());
+        sleep(attempt);
+      }
+    }
+  }
+
+  /**
+   * Whether the circuit of any endpoint is open.
+   */
+  public boolean isOpen() {
+    return circuits.values().stream().anyMatch(Circuit::isOpen);
+  }
+
+  public boolean isOpen(String endpoint) {
+    Circuit circuit = circuits.get(endpoint);
+    return circuit != null && circuit.isOpen();
+  }
+
+  private Circuit circuit(String endpoint) {
+    return circuits.computeIfAbsent(endpoint, key -> {
+      Circuit circuit = new Circuit(key);
+      geoMetrics.gauge("geo.fetch.circuit-open", "1 while vendor calls to the endpoint fail fast", circuit,
+          state -> state.isOpen() ? 1 : 0, "endpoint", key);
+      return circuit;
+    });
+  }
+
+  private <T> T hedged(LatencyWindow window, Callable<T> call) throws Exception {
+    earnHedge();
+    long hedgeAfter = window.quantile(hedgeQuantile, hedgeMinSamples);
+    if (hedgeAfter < 0) {
+      return timed(window, call);
+    }
+    Request<T> primary = submit(window, call);
+    Request<T> hedge = null;
+    try {
+      try {
+        return primary.result().get(Math.max(hedgeAfter, hedgeMinDelayNanos), TimeUnit.NANOSECONDS);
+      } catch (TimeoutException ex) {
+        if (!takeHedge()) {
+          return primary.result().get();
+        }
+        hedges.increment();
+      }
+      hedge = submit(window, call);
+      CompletableFuture<T> first = new CompletableFuture<>();
+      AtomicInteger pending = new AtomicInteger(2);
+      for (Request<T> request : List.of(primary, hedge)) {
+        request.result().whenComplete((result, failure) -> {
+          if (failure == null) {
+            first.complete(result);
+          } else if (pending.decrementAndGet() == 0) {
+            first.completeExceptionally(failure);
+          }
+        });
+      }
+      return first.get();
+    } catch (ExecutionException ex) {
+      throw unwrap(ex);
+    } finally {
+      // Interrupts the losing request, or both when the caller gave up, so neither keeps its fetch permit
+      primary.task().cancel(true);
+      if (hedge != null) {
+        hedge.task().cancel(true);
+      }
+    }
+  }
+
+  private <T> Request<T> submit(LatencyWindow window, Callable<T> call) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    Future<?> task = fetchScheduler.submit(() -> {
+      try {
+        result.complete(timed(window, call));
+      } catch (Throwable ex) {
+        result.completeExceptionally(ex);
+      }
+    });
+    return new Request<>(result, task);
+  }
+
+  /**
+   * Every request sent earns {@code hedge.max-rate} of a hedge, up to a small burst.
+   */
+  private synchronized void earnHedge() {
+    hedgeTokens = Math.min(HEDGE_BURST, hedgeTokens + hedgeMaxRate);
+  }
+
+  private synchronized boolean takeHedge() {
+    if (hedgeTokens < 1) {
+      return false;
+    }
+    hedgeTokens--;
+    return true;
+  }
+
+  private <T> T timed(LatencyWindow window, Callable<T> call) throws Exception {
+    long startTime = System.nanoTime();
+    T result = call.call();
+    window.record(System.nanoTime() - startTime);
+    return result;
+  }
+
+  private static Exception unwrap(ExecutionException ex) {
+    if (ex.getCause() instanceof Exception cause) {
+      return cause;
+    }
+    if (ex.getCause() instanceof Error error) {
+      throw error;
+    }
+    return ex;
+  }
+
+  private static boolean isTransient(Exception ex) {
+    if (ex instanceof RetryableException) {
+      return true;
+    }
+    return ex instanceof FeignException feignException
+        && (feignException.status() == 429 || feignException.status() >= 500);
+  }
+
+  private void sleep(int attempt) throws InterruptedException {
+    long ceiling = Math.min(maxBackoffNanos, backoffNanos << Math.min(attempt - 1, 20));
+    TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+  }
+
+  /**
+   * Thrown without calling the vendor while the circuit is open.
+   */
+  public static class CircuitOpenException extends IllegalStateException {
+
+    public CircuitOpenException(String message) {
+      super(message);
+    }
+  }
+
+  /**
+   * Circuit state of one endpoint.
+   */
+  private final class Circuit {
+
+    private final String endpoint;
+    private int consecutiveFailures;
+    private boolean open;
+    private boolean trialInFlight;
+    private long openedAt;
+
+    private Circuit(String endpoint) {
+      this.endpoint = endpoint;
+    }
+
+    private synchronized boolean isOpen() {
+      return open;
+    }
+
+    private synchronized void acquire() {
+      if (!open) {
+        return;
+      }
+      if (trialInFlight || System.nanoTime() - openedAt < openNanos) {
+        rejected.increment();
+        throw new CircuitOpenException("PC*MILER circuit of " + endpoint + " is open after " + consecutiveFailures
+            + " failed calls");
+      }
+      trialInFlight = true;
+    }
+
+    private synchronized void abandon() {
+      trialInFlight = false;
+    }
+
+    private synchronized void release(boolean healthy) {
+      trialInFlight = false;
+      if (healthy) {
+        if (open) {
+          log.info("Polygon - Vendor circuit of {} closed", endpoint);
+        }
+        open = false;
+        consecutiveFailures = 0;
+        return;
+      }
+      consecutiveFailures++;
+      if (open || consecutiveFailures >= failureThreshold) {
+        if (!open) {
+          log.warn("Polygon - Vendor circuit of {} opened after {} failed calls", endpoint, consecutiveFailures);
+        }
+        open = true;
+        openedAt = System.nanoTime();
+      }
+    }
+  }
+
+  private record Request<T>(CompletableFuture<T> result, Future<?> task) {
+  }
+
+  private static final class LatencyWindow {
+
+    private final long[] samples = new long[LATENCY_WINDOW];
+    private int count;
+    private int next;
+
+    private synchronized void record(long nanos) {
+      samples[next] = nanos;
+      next = (next + 1) % samples.length;
+      count = Math.min(count + 1, samples.length);
+    }
+
+    /**
+     * The latency at the quantile of the recent calls, or -1 while there are fewer than {@code minSamples}.
+     */
+    private synchronized long quantile(double quantile, int minSamples) {
+      if (count == 0 || count < minSamples) {
+        return -1;
+      }
+      long[] sorted = Arrays.copyOf(samples, count);
+      Arrays.sort(sorted);
+      return sorted[Math.max(0, Math.min(count - 1, (int) Math.ceil(quantile * count) - 1))];
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package com.trimble.area.geojson.cache;
+
+import java.time.Duration;
+
+import com.trimble.area.geojson.metrics.GeoMetrics;
+import com.trimble.area.geojson.model.BoundaryType;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Parsed and fixed boundary geometries keyed by boundary type and code. Weight is the vertex count, so a handful of
+ * national outlines cannot push every ZIP out of the cache. Codes the vendor does not know are kept as empty
+ * geometries so they are not requested again until they expire.
+ */
+@Slf4j
+@Component
+public class BoundaryCache {
+
+  private final BoundedCache<Key, Geometry> cache;
+
+  public BoundaryCache(@Value("${geo.boundary-cache.max-entries:200000}") int maxEntries,
+                       @Value("${geo.boundary-cache.max-vertices:50000000}") long maxVertices,
+                       @Value("${geo.boundary-cache.ttl:24h}") Duration ttl, GeoMetrics geoMetrics) {
+    this.cache = new BoundedCache<>(maxEntries, maxVertices, ttl, geometry -> geometry.getNumPoints() + 1L);
+    geoMetrics.registerCache("boundary", this, BoundaryCache::hitCount, BoundaryCache::missCount);
+    log.info("Boundary cache - max entries {}, max vertices {}, ttl {}", maxEntries, maxVertices, ttl);
+  }
+
+  public Geometry get(BoundaryType type, String code) {
+    return cache.get(new Key(type, code));
+  }
+
+  public void put(BoundaryType type, String code, Geometry geometry) {
+    cache.put(new Key(type, code), geometry);
+  }
+
+  public void invalidate(BoundaryType type, String code) {
+    cache.invalidate(new Key(type, code));
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  public int size() {
+    return cache.size();
+  }
+
+  public long vertexCount() {
+    return cache.weight();
+  }
+
+  public long hitCount() {
+    return cache.hitCount();
+  }
+
+  public long missCount() {
+    return cache.missCount();
+  }
+
+  public long evictionCount() {
+    return cache.evictionCount();
+  }
+
+  private record Key(BoundaryType type, String code) {
+  }
+}
@@ -0,0 +1,137 @@
+package com.trimble.area.geojson.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Small LRU cache bounded by entry count and by total weight, with a fixed time-to-live per entry.
+ * Access is synchronized; callers are expected to do the expensive work (fetching, parsing) outside of it.
+ */
+public class BoundedCache<K, V> {
+
+  private final int maxEntries;
+  private final long maxWeight;
+  private final long ttlNanos;
+  private final ToLongFunction<V> weigher;
+  private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private long weight;
+
+  public BoundedCache(int maxEntries, long maxWeight, Duration ttl, ToLongFunction<V> weigher) {
+    this.maxEntries = maxEntries;
+    this.maxWeight = maxWeight;
+    this.ttlNanos = ttl.toNanos();
+    this.weigher = weigher;
+  }
+
+  public V get(K key) {
+    synchronized (entries) {
+      Entry<V> entry = entries.get(key);
+      if (entry == null) {
+        misses.increment();
+        return null;
+      }
+      if (System.nanoTime() - entry.createdAt() > ttlNanos) {
+        remove(key);
+        misses.increment();
+        return null;
+      }
+      hits.increment();
+      return entry.value();
+    }
+  }
+
+  public void put(K key, V value) {
+    long entryWeight = Math.max(1, weigher.applyAsLong(value));
+    if (entryWeight > maxWeight) {
+      return;
+    }
+    synchronized (entries) {
+      Entry<V> previous = entries.put(key, new Entry<>(value, entryWeight, System.nanoTime()));
+      if (previous != null) {
+        weight -= previous.weight();
+      }
+      weight += entryWeight;
+      evict();
+    }
+  }
+
+  public void invalidate(K key) {
+    synchronized (entries) {
+      remove(key);
+    }
+  }
+
+  /**
+   * Removes every entry matching the predicate, scanning the whole cache.
+   */
+  public void invalidateIf(BiPredicate<K, V> predicate) {
+    synchronized (entries) {
+      Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Map.Entry<K, Entry<V>> entry = iterator.next();
+        if (predicate.test(entry.getKey(), entry.getValue().value())) {
+          weight -= entry.getValue().weight();
+          iterator.remove();
+        }
+      }
+    }
+  }
+
+  public void invalidateAll() {
+    synchronized (entries) {
+      entries.clear();
+      weight = 0;
+    }
+  }
+
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  public long weight() {
+    synchronized (entries) {
+      return weight;
+    }
+  }
+
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  public long missCount() {
+    return misses.sum();
+  }
+
+  public long evictionCount() {
+    return evictions.sum();
+  }
+
+  private void remove(K key) {
+    Entry<V> removed = entries.remove(key);
+    if (removed != null) {
+      weight -= removed.weight();
+    }
+  }
+
+  private void evict() {
+    Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+    while ((entries.size() > maxEntries || weight > maxWeight) && iterator.hasNext()) {
+      weight -= iterator.next().getValue().weight();
+      iterator.remove();
+      evictions.increment();
+    }
+  }
+
+  private record Entry<V>(V value, long weight, long createdAt) {
+  }
+}
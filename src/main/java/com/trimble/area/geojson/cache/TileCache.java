@@ -0,0 +1,89 @@
+package com.trimble.area.geojson.cache;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.trimble.area.geojson.metrics.GeoMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Envelope;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Encoded vector tiles keyed by z/x/y, weighted by their size in bytes. A tile remembers the areas it was built from,
+ * so saving an area drops the tiles that contained it and the tiles its new geometry reaches. Tiles built while an
+ * invalidation happened are not cached, since they may have read the previous geometry.
+ */
+@Slf4j
+@Component
+public class TileCache {
+
+  private final BoundedCache<Key, Tile> cache;
+  private final AtomicLong generation = new AtomicLong();
+
+  public TileCache(@Value("${geo.tiles.cache.max-entries:20000}") int maxEntries,
+                   @Value("${geo.tiles.cache.max-bytes:268435456}") long maxBytes,
+                   @Value("${geo.tiles.cache.ttl:1h}") Duration ttl, GeoMetrics geoMetrics) {
+    this.cache = new BoundedCache<>(maxEntries, maxBytes, ttl, tile -> tile.bytes().length);
+    geoMetrics.registerCache("tile", this, TileCache::hitCount, TileCache::missCount);
+    log.info("Tile cache - max entries {}, max bytes {}, ttl {}", maxEntries, maxBytes, ttl);
+  }
+
+  public Tile get(int z, int x, int y) {
+    return cache.get(new Key(z, x, y));
+  }
+
+  /**
+   * The current invalidation generation; pass it to {@link #put} for a tile built after reading it.
+   */
+  public long generation() {
+    return generation.get();
+  }
+
+  public void put(int z, int x, int y, Tile tile, long builtAtGeneration) {
+    if (generation.get() == builtAtGeneration) {
+      cache.put(new Key(z, x, y), tile);
+    }
+  }
+
+  /**
+   * Drops the tiles built from the area and, if the area has a new geometry, the tiles that overlap its envelope.
+   */
+  public void invalidateArea(UUID areaId, Envelope newBounds) {
+    generation.incrementAndGet();
+    cache.invalidateIf((key, tile) -> tile.areaIds().contains(areaId)
+        || (newBounds != null && tile.bounds().intersects(newBounds)));
+  }
+
+  public void invalidateAll() {
+    generation.incrementAndGet();
+    cache.invalidateAll();
+  }
+
+  public long hitCount() {
+    return cache.hitCount();
+  }
+
+  public long missCount() {
+    return cache.missCount();
+  }
+
+  public int size() {
+    return cache.size();
+  }
+
+  public long byteCount() {
+    return cache.weight();
+  }
+
+  /**
+   * An encoded tile with the lon/lat bounds it covers, buffer included, and the areas drawn in it.
+   */
+  public record Tile(byte[] bytes, Envelope bounds, Set<UUID> areaIds) {
+  }
+
+  private record Key(int z, int x, int y) {
+  }
+}
@@ -0,0 +1,70 @@
+package com.trimble.area.geojson.cache;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.trimble.area.geojson.metrics.GeoMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Versions of stored polygons keyed by id, so conditional GeoJSON requests are answered without reading Mongo. Saves
+ * publish the new version once the polygon and its levels are written. Versions read from Mongo are not cached if a
+ * save was published while they were read, since they may be older than it.
+ * <p>
+ * Only saves made by this instance are published; entries expire after {@code geo.geojson.versions.ttl}, which bounds
+ * how long a save made by another instance can be answered with 304.
+ */
+@Slf4j
+@Component
+public class VersionCache {
+
+  private final BoundedCache<UUID, Long> cache;
+  private final AtomicLong generation = new AtomicLong();
+
+  public VersionCache(@Value("${geo.geojson.versions.max-entries:1000000}") int maxEntries,
+                      @Value("${geo.geojson.versions.ttl:10m}") Duration ttl, GeoMetrics geoMetrics) {
+    this.cache = new BoundedCache<>(maxEntries, Long.MAX_VALUE, ttl, version -> 1);
+    geoMetrics.registerCache("version", this, VersionCache::hitCount, VersionCache::missCount);
+    log.info("Version cache - max entries {}, ttl {}", maxEntries, ttl);
+  }
+
+  public Long get(UUID id) {
+    return cache.get(id);
+  }
+
+  /**
+   * The current publish generation; pass it to {@link #put} for a version read after reading it.
+   */
+  public long generation() {
+    return generation.get();
+  }
+
+  public void put(UUID id, long version, long readAtGeneration) {
+    if (generation.get() == readAtGeneration) {
+      cache.put(id, version);
+    }
+  }
+
+  /**
+   * Records the version of a saved polygon, or forgets the polygon when it was removed or its save failed.
+   */
+  public void publish(UUID id, Long version) {
+    generation.incrementAndGet();
+    if (version == null) {
+      cache.invalidate(id);
+    } else {
+      cache.put(id, version);
+    }
+  }
+
+  public long hitCount() {
+    return cache.hitCount();
+  }
+
+  public long missCount() {
+    return cache.missCount();
+  }
+}
@@ -21,7 +21,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 
 
-@FeignClient(value = "pcMiler", url = "${pc-miler.api.url}")
+@FeignClient(value = "pcMiler", url = "${pc-miler.api.url}", configuration = PcMilerClientConfig.class)
 public interface PcMilerClient {
 
   @GetMapping(value = "polygons/zip")
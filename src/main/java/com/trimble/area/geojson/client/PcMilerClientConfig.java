@@ -0,0 +1,57 @@
+package com.trimble.area.geojson.client;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import feign.Client;
+import feign.Request;
+import feign.Retryer;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Feign configuration of the {@link PcMilerClient} only; it is not a {@code @Configuration} so the beans stay in the
+ * client's own context. Requests go through a pooled OkHttp client that negotiates HTTP/2 over TLS where the vendor
+ * offers it. Feign does not retry: {@link com.trimble.area.geojson.boundary.VendorCallGuard} owns retries.
+ */
+public class PcMilerClientConfig {
+
+  @Bean
+  public OkHttpClient pcMilerOkHttpClient(@Value("${pc-miler.http.max-idle-connections:32}") int maxIdleConnections,
+                                          @Value("${pc-miler.http.keep-alive:5m}") Duration keepAlive,
+                                          @Value("${pc-miler.http.connect-timeout:2s}") Duration connectTimeout,
+                                          @Value("${pc-miler.http.read-timeout:10s}") Duration readTimeout,
+                                          @Value("${pc-miler.http.call-timeout:15s}") Duration callTimeout) {
+    return new OkHttpClient.Builder()
+        .connectionPool(new ConnectionPool(maxIdleConnections, keepAlive.toMillis(), TimeUnit.MILLISECONDS))
+        .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+        .connectTimeout(connectTimeout)
+        .readTimeout(readTimeout)
+        .callTimeout(callTimeout)
+        .retryOnConnectionFailure(false)
+        .build();
+  }
+
+  @Bean
+  public Client pcMilerFeignClient(OkHttpClient pcMilerOkHttpClient) {
+    return new feign.okhttp.OkHttpClient(pcMilerOkHttpClient);
+  }
+
+  /**
+   * Matches the OkHttp timeouts, which Feign would otherwise override per request.
+   */
+  @Bean
+  public Request.Options pcMilerRequestOptions(@Value("${pc-miler.http.connect-timeout:2s}") Duration connectTimeout,
+                                               @Value("${pc-miler.http.read-timeout:10s}") Duration readTimeout) {
+    return new Request.Options(connectTimeout, readTimeout, true);
+  }
+
+  @Bean
+  public Retryer pcMilerRetryer() {
+    return Retryer.NEVER_RETRY;
+  }
+}
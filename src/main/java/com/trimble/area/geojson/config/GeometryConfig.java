@@ -0,0 +1,24 @@
+package com.trimble.area.geojson.config;
+
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequenceFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class GeometryConfig {
+
+  public static final int PRECISION_SCALE = 1000;
+  public static final int SRID = 4326;
+
+  /**
+   * Geometries keep their ordinates in packed {@code double} arrays, 16 bytes per 2D vertex instead of a
+   * {@code Coordinate} object each, which is what dominates the boundary cache and large merges.
+   */
+  @Bean
+  public GeometryFactory geometryFactory() {
+    return new GeometryFactory(new PrecisionModel(PRECISION_SCALE), SRID,
+        PackedCoordinateSequenceFactory.DOUBLE_FACTORY);
+  }
+}
@@ -0,0 +1,59 @@
+package com.trimble.area.geojson.config;
+
+import java.util.List;
+
+import com.trimble.area.geojson.geometry.GeoJsonGeometryReader;
+import com.trimble.area.geojson.geometry.GeoJsonGeometryWriter;
+import com.trimble.area.geojson.metrics.GeoMetrics;
+import com.trimble.area.geojson.model.AreaGeometry;
+import org.bson.BsonBinaryWriter;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.io.BasicOutputBuffer;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+/**
+ * Maps {@link AreaGeometry} to and from its GeoJSON sub-document. The writer encodes the geometry straight into a raw
+ * BSON document, so saving a merged polygon does not build a {@code Document} tree of boxed coordinates first.
+ */
+@Configuration
+public class MongoConfig {
+
+  @Bean
+  public MongoCustomConversions mongoCustomConversions(GeometryFactory geometryFactory, GeoMetrics geoMetrics) {
+    return new MongoCustomConversions(List.of(
+        new AreaGeometryWriter(geoMetrics),
+        new AreaGeometryReader(geometryFactory)));
+  }
+
+  @WritingConverter
+  record AreaGeometryWriter(GeoMetrics geoMetrics) implements Converter<AreaGeometry, BsonDocument> {
+
+    @Override
+    public BsonDocument convert(AreaGeometry source) {
+      long startTime = System.nanoTime();
+      BasicOutputBuffer buffer = new BasicOutputBuffer();
+      try (BsonBinaryWriter writer = new BsonBinaryWriter(buffer)) {
+        GeoJsonGeometryWriter.write(source.getGeometry(), writer);
+      }
+      geoMetrics.recordStage("serialize", System.nanoTime() - startTime);
+      return new RawBsonDocument(buffer.getInternalBuffer(), 0, buffer.getPosition());
+    }
+  }
+
+  @ReadingConverter
+  record AreaGeometryReader(GeometryFactory geometryFactory) implements Converter<Document, AreaGeometry> {
+
+    @Override
+    public AreaGeometry convert(Document source) {
+      return new AreaGeometry(GeoJsonGeometryReader.read(source, geometryFactory));
+    }
+  }
+}
@@ -8,20 +8,39 @@
 
 package com.trimble.area.geojson.controller;
 
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 
 import com.trimble.area.geojson.model.Area;
 import com.trimble.area.geojson.model.AreaPoint;
 import com.trimble.area.geojson.model.GeoData;
-import com.trimble.area.geojson.model.GeoJson;
+import com.trimble.area.geojson.model.MergeJob;
+import com.trimble.area.geojson.model.MergePriority;
+import com.trimble.area.geojson.service.BulkMergeService;
 import com.trimble.area.geojson.service.GeoJsonService;
+import com.trimble.area.geojson.service.GeofenceService;
+import com.trimble.area.geojson.service.GeometryLevelService;
+import com.trimble.area.geojson.service.MergeJobService;
+import com.trimble.area.geojson.service.StoredGeometry;
+import com.trimble.area.geojson.service.VectorTileService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequiredArgsConstructor
@@ -29,15 +48,91 @@ import org.springframework.web.bind.annotation.RestController;
 public class GeoController {
 
   private final GeoJsonService geoJsonService;
+  private final MergeJobService mergeJobService;
+  private final BulkMergeService bulkMergeService;
+  private final GeometryLevelService geometryLevelService;
+  private final VectorTileService vectorTileService;
+  private final GeofenceService geofenceService;
 
   @PostMapping("/merge")
   public GeoData mergeArea(final @RequestBody Area area) {
     return geoJsonService.mergePolygon(area);
   }
 
-  @GetMapping("/geo-json/{id}")
-  public GeoJson getGeoJsonById(@PathVariable UUID id) {
-    return geoJsonService.getGeoJsonById(id);
+  @PostMapping(value = "/merge/bulk", consumes = "application/x-ndjson", produces = "application/x-ndjson")
+  public StreamingResponseBody bulkMerge(final InputStream areas) {
+    return out -> bulkMergeService.merge(areas, out);
+  }
+
+  @PostMapping("/merge/jobs")
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public MergeJob submitMergeJob(final @RequestBody Area area,
+                                 @RequestParam(defaultValue = "INTERACTIVE") MergePriority priority) {
+    return mergeJobService.submit(area, priority);
+  }
+
+  @GetMapping("/merge/jobs/{jobId}")
+  public MergeJob getMergeJob(@PathVariable UUID jobId) {
+    return mergeJobService.getJob(jobId);
+  }
+
+  @GetMapping("/merge/jobs")
+  public MergeJob getLatestMergeJob(@RequestParam UUID areaId) {
+    return mergeJobService.getLatestJob(areaId);
+  }
+
+  /**
+   * Every save of a polygon bumps its version, so the id, the version and the level identify an immutable copy of
+   * the geometry. A matching If-None-Match is answered with 304 from the version kept in memory, without reading
+   * Mongo. Otherwise the ETag sent is the version read together with the geometry, so it always names the body. With
+   * a {@code zoom} or a {@code tolerance} in degrees the coarsest simplified level that is still accurate enough is
+   * returned.
+   */
+  @GetMapping(value = "/geo-json/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> getGeoJsonById(@PathVariable UUID id,
+                                                              @RequestParam(required = false) Integer zoom,
+                                                              @RequestParam(required = false) Double tolerance,
+                                                              WebRequest request) {
+    Double level = null;
+    if (tolerance != null) {
+      level = geometryLevelService.levelFor(tolerance);
+    } else if (zoom != null) {
+      level = geometryLevelService.levelFor(geometryLevelService.toleranceForZoom(zoom));
+    }
+    Long version = geoJsonService.getVersion(id);
+    if (version == null) {
+      return ResponseEntity.ok().build();
+    }
+    String eTag = eTag(id, version, level);
+    if (matchesIfNoneMatch(request, eTag) && request.checkNotModified(eTag)) {
+      return null;
+    }
+    StoredGeometry geometry = geoJsonService.getStoredGeometry(id, level);
+    if (geometry == null) {
+      return ResponseEntity.ok().build();
+    }
+    // A save since the version above is sent with its own version; Spring answers 304 if the client already has it
+    return ResponseEntity.ok()
+        .eTag(eTag(id, geometry.version(), level))
+        .cacheControl(CacheControl.noCache())
+        .body(out -> geoJsonService.writeGeoJson(geometry, out));
+  }
+
+  @GetMapping(value = "/tiles/{z}/{x}/{y}.mvt", produces = "application/vnd.mapbox-vector-tile")
+  public ResponseEntity<byte[]> getTile(@PathVariable int z, @PathVariable int x, @PathVariable int y) {
+    byte[] tile = vectorTileService.getTile(z, x, y);
+    if (tile.length == 0) {
+      return ResponseEntity.noContent().build();
+    }
+    return ResponseEntity.ok(tile);
+  }
+
+  /**
+   * For each point, in order, the ids of the areas that contain it.
+   */
+  @PostMapping("/contains")
+  public List<List<UUID>> findContainingAreas(final @RequestBody List<AreaPoint> points) {
+    return geofenceService.findContaining(points);
   }
 
   @GetMapping("/centroid/{id}")
@@ -45,5 +140,19 @@ public class GeoController {
     return geoJsonService.getCentroidById(id);
   }
 
-}
+  private static String eTag(UUID id, long version, Double level) {
+    return "\"" + id + ":" + version + (level == null ? "" : "@" + level) + "\"";
+  }
 
+  /**
+   * Whether If-None-Match names the ETag. Checked before {@code checkNotModified}, which would otherwise set the
+   * ETag header to a version that the geometry read afterwards may not have.
+   */
+  private static boolean matchesIfNoneMatch(WebRequest request, String eTag) {
+    String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+    return ifNoneMatch != null && Arrays.stream(ifNoneMatch.split(","))
+        .map(String::trim)
+        .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+        .anyMatch(eTag::equals);
+  }
+}
@@ -0,0 +1,176 @@
+package com.trimble.area.geojson.geometry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+import org.locationtech.jts.algorithm.locate.IndexedPointInAreaLocator;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Location;
+import org.locationtech.jts.index.strtree.STRtree;
+
+/**
+ * Point-in-area index over the merged polygons, one entry per area. Reads are lock-free against an immutable snapshot:
+ * an STRtree of all areas as of its last build plus a small delta of areas changed since. Each change copies the
+ * delta; once it outgrows {@code rebuildThreshold} the tree is rebuilt on the given executor and swapped in, keeping
+ * only the changes made while it was being built.
+ * <p>
+ * Each entry holds an {@link IndexedPointInAreaLocator} whose index is built up front, so point lookups never take the
+ * lock a {@code PreparedPolygon} takes to hand out its locator. When the area has a {@link CellCovering}, points in an
+ * interior cell match and points outside every cell are rejected without touching the locator; only points in
+ * boundary cells get the exact test.
+ */
+public class AreaIndex {
+
+  private final Executor rebuildExecutor;
+  private final int rebuildThreshold;
+  private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+  private volatile Snapshot snapshot = new Snapshot(build(List.of()), Map.of());
+  private boolean rebuilding;
+  private long vertexCount;
+
+  public AreaIndex(Executor rebuildExecutor, int rebuildThreshold) {
+    this.rebuildExecutor = rebuildExecutor;
+    this.rebuildThreshold = rebuildThreshold;
+  }
+
+  /**
+   * Replaces all entries at once, e.g. when warm-loading.
+   */
+  public synchronized void load(Map<UUID, Geometry> geometries, Map<UUID, CellCovering> coverings) {
+    entries.clear();
+    vertexCount = 0;
+    geometries.forEach((areaId, geometry) -> {
+      Entry entry = new Entry(areaId, geometry, coverings.get(areaId));
+      entries.put(areaId, entry);
+      vertexCount += geometry.getNumPoints();
+    });
+    snapshot = new Snapshot(build(entries.values()), Map.of());
+  }
+
+  /**
+   * Adds or replaces the area; a null or empty geometry removes it. The covering is optional.
+   */
+  public void put(UUID areaId, Geometry geometry, CellCovering covering) {
+    Entry entry = geometry == null || geometry.isEmpty() ? null : new Entry(areaId, geometry, covering);
+    synchronized (this) {
+      Entry previous = entry == null ? entries.remove(areaId) : entries.put(areaId, entry);
+      if (previous == null && entry == null) {
+        return;
+      }
+      vertexCount += (entry == null ? 0 : entry.vertices()) - (previous == null ? 0 : previous.vertices());
+      Map<UUID, Optional<Entry>> delta = new HashMap<>(snapshot.delta());
+      delta.put(areaId, Optional.ofNullable(entry));
+      snapshot = new Snapshot(snapshot.tree(), delta);
+      if (delta.size() > rebuildThreshold && !rebuilding) {
+        rebuilding = true;
+        rebuildExecutor.execute(this::rebuild);
+      }
+    }
+  }
+
+  public void remove(UUID areaId) {
+    put(areaId, null, null);
+  }
+
+  /**
+   * Calls the consumer with the id of every area that contains the point or has it on its boundary.
+   */
+  public void findContaining(Coordinate point, Consumer<UUID> areaIds) {
+    Snapshot current = snapshot;
+    current.tree().query(new Envelope(point), item -> {
+      Entry entry = (Entry) item;
+      if (!current.delta().containsKey(entry.areaId()) && entry.contains(point)) {
+        areaIds.accept(entry.areaId());
+      }
+    });
+    for (Optional<Entry> changed : current.delta().values()) {
+      changed.filter(entry -> entry.contains(point)).ifPresent(entry -> areaIds.accept(entry.areaId()));
+    }
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  public synchronized long vertexCount() {
+    return vertexCount;
+  }
+
+  private void rebuild() {
+    List<Entry> current;
+    Map<UUID, Optional<Entry>> includedDelta;
+    synchronized (this) {
+      current = new ArrayList<>(entries.values());
+      includedDelta = snapshot.delta();
+    }
+    try {
+      STRtree tree = build(current);
+      synchronized (this) {
+        // Every change creates a new Optional, so identity tells the changes made during the build apart
+        Map<UUID, Optional<Entry>> remaining = new HashMap<>();
+        snapshot.delta().forEach((areaId, change) -> {
+          if (includedDelta.get(areaId) != change) {
+            remaining.put(areaId, change);
+          }
+        });
+        snapshot = new Snapshot(tree, remaining);
+      }
+    } finally {
+      synchronized (this) {
+        rebuilding = false;
+      }
+    }
+  }
+
+  private static STRtree build(Collection<Entry> entries) {
+    STRtree tree = new STRtree();
+    for (Entry entry : entries) {
+      tree.insert(entry.envelope(), entry);
+    }
+    tree.build();
+    return tree;
+  }
+
+  private record Snapshot(STRtree tree, Map<UUID, Optional<Entry>> delta) {
+  }
+
+  private record Entry(UUID areaId, Envelope envelope, IndexedPointInAreaLocator locator, CellCovering covering,
+                       int vertices) {
+
+    private Entry(UUID areaId, Geometry geometry, CellCovering covering) {
+      this(areaId, geometry.getEnvelopeInternal(), new IndexedPointInAreaLocator(geometry),
+          covering == null || covering.isEmpty() ? null : covering, geometry.getNumPoints());
+      // Builds the locator's interval index now instead of lazily under its lock on the first lookup
+      locator.locate(geometry.getEnvelopeInternal().centre());
+    }
+
+    private boolean contains(Coordinate point) {
+      if (!envelope.covers(point)) {
+        return false;
+      }
+      if (covering != null) {
+        switch (covering.locate(point)) {
+          case INTERIOR -> {
+            return true;
+          }
+          case EXTERIOR -> {
+            return false;
+          }
+          case BOUNDARY -> {
+          }
+        }
+      }
+      return locator.locate(point) != Location.EXTERIOR;
+    }
+  }
+}
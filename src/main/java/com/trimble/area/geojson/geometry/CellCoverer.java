@@ -0,0 +1,81 @@
+package com.trimble.area.geojson.geometry;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Computes {@link CellCovering}s with adaptive depth. Cells are refined breadth first, so coarse cells are split
+ * before fine ones: a cell the geometry covers is kept as an interior cell, a cell its boundary crosses is split until
+ * {@code geo.covering.max-level} or until the covering would exceed {@code geo.covering.max-cells}.
+ */
+@Component
+public class CellCoverer {
+
+  private final GeometryFactory cellFactory = new GeometryFactory();
+  private final int maxLevel;
+  private final int maxCells;
+
+  public CellCoverer(@Value("${geo.covering.max-level:16}") int maxLevel,
+                     @Value("${geo.covering.max-cells:512}") int maxCells) {
+    this.maxLevel = Math.min(maxLevel, CellCovering.MAX_LEVEL);
+    this.maxCells = maxCells;
+  }
+
+  public CellCovering cover(Geometry geometry) {
+    if (geometry == null || geometry.isEmpty()) {
+      return CellCovering.EMPTY;
+    }
+    PreparedGeometry prepared = PreparedGeometryFactory.prepare(geometry);
+    LongList interior = new LongList();
+    LongList boundary = new LongList();
+    Deque<long[]> candidates = new ArrayDeque<>();
+    candidates.add(new long[] {0, 0, 0});
+    while (!candidates.isEmpty()) {
+      long[] cell = candidates.poll();
+      long x = cell[0];
+      long y = cell[1];
+      int level = (int) cell[2];
+      Geometry bounds = cellFactory.toGeometry(CellCovering.bounds(x, y, level));
+      if (!prepared.intersects(bounds)) {
+        continue;
+      }
+      if (prepared.covers(bounds)) {
+        interior.add(CellCovering.cellId(x, y, level));
+      } else if (level >= maxLevel || interior.size + boundary.size + candidates.size() + 4 > maxCells) {
+        boundary.add(CellCovering.cellId(x, y, level));
+      } else {
+        for (int child = 0; child < 4; child++) {
+          candidates.add(new long[] {2 * x + (child & 1), 2 * y + (child >> 1), level + 1});
+        }
+      }
+    }
+    return new CellCovering(interior.sorted(), boundary.sorted());
+  }
+
+  private static final class LongList {
+
+    private long[] values = new long[64];
+    private int size;
+
+    private void add(long value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+
+    private long[] sorted() {
+      long[] result = Arrays.copyOf(values, size);
+      Arrays.sort(result);
+      return result;
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package com.trimble.area.geojson.geometry;
+
+import java.util.Arrays;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+
+/**
+ * A covering of a geometry by quadtree cells over lon/lat, split into cells entirely inside the geometry and cells its
+ * boundary passes through. Cell ids follow the S2 layout: a cell at level {@code L} is its 2L-bit Z-order path
+ * followed by a 1 bit and {@code 2 * (MAX_LEVEL - L)} zero bits, so every descendant's id lies within
+ * {@code id +/- (lowestOneBit(id) - 1)} and a sorted array of disjoint cells answers containment with a binary search.
+ */
+public record CellCovering(long[] interiorCells, long[] boundaryCells) {
+
+  public static final int MAX_LEVEL = 30;
+  public static final CellCovering EMPTY = new CellCovering(new long[0], new long[0]);
+
+  public enum Containment { INTERIOR, BOUNDARY, EXTERIOR }
+
+  /**
+   * Where the point falls: inside the geometry, in a boundary cell that needs an exact test, or outside.
+   */
+  public Containment locate(Coordinate point) {
+    long leaf = leafId(point.getX(), point.getY());
+    if (containsCell(interiorCells, leaf)) {
+      return Containment.INTERIOR;
+    }
+    return containsCell(boundaryCells, leaf) ? Containment.BOUNDARY : Containment.EXTERIOR;
+  }
+
+  public boolean isEmpty() {
+    return interiorCells.length == 0 && boundaryCells.length == 0;
+  }
+
+  /**
+   * The ids of the cells containing the point at every level, e.g. to look up stored coverings that contain it
+   * whatever depth they were built with.
+   */
+  public static long[] ancestorIds(double longitude, double latitude) {
+    long leaf = leafId(longitude, latitude);
+    long[] ids = new long[MAX_LEVEL + 1];
+    for (int level = 0; level <= MAX_LEVEL; level++) {
+      ids[level] = parentId(leaf, level);
+    }
+    return ids;
+  }
+
+  public static long leafId(double longitude, double latitude) {
+    long cells = 1L << MAX_LEVEL;
+    long x = Math.min(cells - 1, Math.max(0, (long) Math.floor((longitude + 180) / 360 * cells)));
+    long y = Math.min(cells - 1, Math.max(0, (long) Math.floor((latitude + 90) / 180 * cells)));
+    return cellId(x, y, MAX_LEVEL);
+  }
+
+  /**
+   * The id of the cell at {@code level} with column {@code x} and row {@code y}, counted from the south-west corner.
+   */
+  public static long cellId(long x, long y, int level) {
+    return ((interleave(x, y) << 1) | 1) << (2 * (MAX_LEVEL - level));
+  }
+
+  public static long parentId(long id, int level) {
+    long lsb = 1L << (2 * (MAX_LEVEL - level));
+    return (id & -lsb) | lsb;
+  }
+
+  /**
+   * The lon/lat bounds of a cell.
+   */
+  public static Envelope bounds(long x, long y, int level) {
+    double width = 360.0 / (1L << level);
+    double height = 180.0 / (1L << level);
+    return new Envelope(-180 + x * width, -180 + (x + 1) * width, -90 + y * height, -90 + (y + 1) * height);
+  }
+
+  /**
+   * Whether a cell of the sorted, disjoint array contains the cell {@code id}.
+   */
+  static boolean containsCell(long[] cells, long id) {
+    int index = Arrays.binarySearch(cells, id);
+    if (index >= 0) {
+      return true;
+    }
+    int insertion = -index - 1;
+    return (insertion < cells.length && contains(cells[insertion], id))
+        || (insertion > 0 && contains(cells[insertion - 1], id));
+  }
+
+  private static boolean contains(long cell, long id) {
+    long halfRange = Long.lowestOneBit(cell) - 1;
+    return id >= cell - halfRange && id <= cell + halfRange;
+  }
+
+  private static long interleave(long x, long y) {
+    return spread(x) | (spread(y) << 1);
+  }
+
+  private static long spread(long value) {
+    long v = value & 0x3FFFFFFFL;
+    v = (v | (v << 16)) & 0x0000FFFF0000FFFFL;
+    v = (v | (v << 8)) & 0x00FF00FF00FF00FFL;
+    v = (v | (v << 4)) & 0x0F0F0F0F0F0F0F0FL;
+    v = (v | (v << 2)) & 0x3333333333333333L;
+    v = (v | (v << 1)) & 0x5555555555555555L;
+    return v;
+  }
+}
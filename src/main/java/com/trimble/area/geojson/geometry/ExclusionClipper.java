@@ -0,0 +1,104 @@
+package com.trimble.area.geojson.geometry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.RequiredArgsConstructor;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.geom.util.PolygonExtracter;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.locationtech.jts.operation.overlayng.OverlayNG;
+import org.springframework.stereotype.Component;
+
+/**
+ * Subtracts exclusions from a polygonal geometry one component at a time. Include components are indexed in an
+ * STRtree and only those that really intersect an exclusion are touched; the rest are passed through unchanged.
+ * Exclusions lying strictly inside a component become holes of it without an overlay, which is the common case of a
+ * country or state minus a few ZIPs.
+ * <p>
+ * Both inputs must be valid, polygonal and on the factory's precision grid; the result is then valid and on the grid as
+ * well, since overlays snap-round to it (see {@link PrecisionOverlay}) and holes reuse the exclusions' own rings.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExclusionClipper {
+
+  private final GeometryFactory geometryFactory;
+
+  public Geometry difference(Geometry include, Geometry exclude) {
+    if (exclude.isEmpty() || !include.getEnvelopeInternal().intersects(exclude.getEnvelopeInternal())) {
+      return include;
+    }
+    @SuppressWarnings("unchecked")
+    List<Polygon> components = PolygonExtracter.getPolygons(include);
+    @SuppressWarnings("unchecked")
+    List<Polygon> cutters = PolygonExtracter.getPolygons(exclude);
+
+    STRtree index = new STRtree();
+    for (int i = 0; i < components.size(); i++) {
+      index.insert(components.get(i).getEnvelopeInternal(), i);
+    }
+    Map<Integer, List<Polygon>> candidates = new HashMap<>();
+    for (Polygon cutter : cutters) {
+      for (Object hit : index.query(cutter.getEnvelopeInternal())) {
+        candidates.computeIfAbsent((Integer) hit, k -> new ArrayList<>()).add(cutter);
+      }
+    }
+    if (candidates.isEmpty()) {
+      return include;
+    }
+
+    List<Polygon> result = new ArrayList<>(components.size());
+    for (int i = 0; i < components.size(); i++) {
+      Polygon component = components.get(i);
+      List<Polygon> componentCutters = candidates.get(i);
+      if (componentCutters == null) {
+        result.add(component);
+      } else {
+        result.addAll(clip(component, componentCutters));
+      }
+    }
+    return geometryFactory.createMultiPolygon(result.toArray(Polygon[]::new));
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Polygon> clip(Polygon component, List<Polygon> cutters) {
+    PreparedGeometry prepared = PreparedGeometryFactory.prepare(component);
+    List<Polygon> intersecting = new ArrayList<>();
+    boolean allInterior = true;
+    for (Polygon cutter : cutters) {
+      if (prepared.intersects(cutter)) {
+        intersecting.add(cutter);
+        allInterior &= cutter.getNumInteriorRing() == 0 && prepared.containsProperly(cutter);
+      }
+    }
+    if (intersecting.isEmpty()) {
+      return List.of(component);
+    }
+    if (allInterior) {
+      return List.of(withHoles(component, intersecting));
+    }
+    Geometry cutter = intersecting.size() == 1 ? intersecting.get(0)
+        : geometryFactory.createMultiPolygon(intersecting.toArray(Polygon[]::new));
+    return PolygonExtracter.getPolygons(
+        PrecisionOverlay.overlay(component, cutter, OverlayNG.DIFFERENCE, geometryFactory.getPrecisionModel()));
+  }
+
+  private Polygon withHoles(Polygon component, List<Polygon> cutters) {
+    LinearRing[] holes = new LinearRing[component.getNumInteriorRing() + cutters.size()];
+    for (int i = 0; i < component.getNumInteriorRing(); i++) {
+      holes[i] = component.getInteriorRingN(i);
+    }
+    for (int i = 0; i < cutters.size(); i++) {
+      holes[component.getNumInteriorRing() + i] = cutters.get(i).getExteriorRing();
+    }
+    return geometryFactory.createPolygon(component.getExteriorRing(), holes);
+  }
+}
@@ -0,0 +1,455 @@
+package com.trimble.area.geojson.geometry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * Reads GeoJSON geometry objects into JTS geometries. Positions are collected into flat {@code double} buffers per
+ * ring, which back the coordinate sequences directly when the factory is packed; no boxed coordinate lists are built
+ * for JSON or BSON input.
+ */
+public final class GeoJsonGeometryReader {
+
+  private GeoJsonGeometryReader() {
+  }
+
+  /**
+   * Reads the geometry object at the parser's current token, which must be {@code START_OBJECT}.
+   */
+  public static Geometry read(JsonParser parser, GeometryFactory geometryFactory) throws IOException {
+    if (parser.currentToken() != JsonToken.START_OBJECT) {
+      throw new IllegalStateException("Expected a GeoJSON geometry object, found " + parser.currentToken());
+    }
+    String type = null;
+    Object coordinates = null;
+    List<Geometry> geometries = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String name = parser.currentName();
+      JsonToken value = parser.nextToken();
+      if (value == JsonToken.VALUE_NULL) {
+        continue;
+      }
+      switch (name) {
+        case "type" -> type = parser.getText();
+        case "coordinates" -> coordinates = readCoordinates(new JsonSource(parser));
+        case "geometries" -> {
+          geometries = new ArrayList<>();
+          while (parser.nextToken() != JsonToken.END_ARRAY) {
+            geometries.add(read(parser, geometryFactory));
+          }
+        }
+        default -> parser.skipChildren();
+      }
+    }
+    return build(type, coordinates, geometries, geometryFactory);
+  }
+
+  /**
+   * Reads the geometry document the reader is positioned on.
+   */
+  public static Geometry read(BsonReader reader, GeometryFactory geometryFactory) {
+    String type = null;
+    Object coordinates = null;
+    List<Geometry> geometries = null;
+    reader.readStartDocument();
+    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+      String name = reader.readName();
+      if (reader.getCurrentBsonType() == BsonType.NULL) {
+        reader.readNull();
+        continue;
+      }
+      switch (name) {
+        case "type" -> type = reader.readString();
+        case "coordinates" -> coordinates = readCoordinates(new BsonSource(reader));
+        case "geometries" -> {
+          geometries = new ArrayList<>();
+          reader.readStartArray();
+          while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            geometries.add(read(reader, geometryFactory));
+          }
+          reader.readEndArray();
+        }
+        default -> reader.skipValue();
+      }
+    }
+    reader.readEndDocument();
+    return build(type, coordinates, geometries, geometryFactory);
+  }
+
+  /**
+   * Reads a geometry that has already been decoded into maps and lists, e.g. a driver {@code Document}.
+   */
+  @SuppressWarnings("unchecked")
+  public static Geometry read(Map<String, ?> document, GeometryFactory geometryFactory) {
+    Object coordinates = document.get("coordinates") instanceof List<?> list
+        ? readCoordinates(new ListSource(list))
+        : null;
+    List<Geometry> geometries = null;
+    if (document.get("geometries") instanceof List<?> members) {
+      geometries = new ArrayList<>(members.size());
+      for (Object member : members) {
+        geometries.add(read((Map<String, ?>) member, geometryFactory));
+      }
+    }
+    return build((String) document.get("type"), coordinates, geometries, geometryFactory);
+  }
+
+  /**
+   * Reads one coordinates array into a tree whose leaves are {@link Positions}: a position list such as a ring, or the
+   * single position of a point. Each nesting level above that is a {@link List}.
+   */
+  private static Object readCoordinates(Source source) {
+    source.startArray();
+    return readStartedArray(source);
+  }
+
+  private static Object readStartedArray(Source source) {
+    if (!source.hasNext()) {
+      source.endArray();
+      return List.of();
+    }
+    if (source.nextIsNumber()) {
+      Positions position = new Positions(1);
+      readStartedPosition(source, position);
+      return position;
+    }
+    source.startArray();
+    if (source.hasNext() && source.nextIsNumber()) {
+      // The first child is a position, so this array is a position list
+      Positions positions = new Positions(16);
+      readStartedPosition(source, positions);
+      while (source.hasNext()) {
+        source.startArray();
+        readStartedPosition(source, positions);
+      }
+      source.endArray();
+      return positions;
+    }
+    List<Object> children = new ArrayList<>();
+    children.add(readStartedArray(source));
+    while (source.hasNext()) {
+      children.add(readCoordinates(source));
+    }
+    source.endArray();
+    return children;
+  }
+
+  private static void readStartedPosition(Source source, Positions positions) {
+    double x = source.readNumber();
+    double y = source.readNumber();
+    // Altitude and any further elements are not used by this service
+    while (source.hasNext()) {
+      source.readNumber();
+    }
+    source.endArray();
+    positions.add(x, y);
+  }
+
+  private static Geometry build(String type, Object coordinates, List<Geometry> geometries,
+                                GeometryFactory geometryFactory) {
+    if (type == null) {
+      throw new IllegalArgumentException("GeoJSON geometry has no type");
+    }
+    if (Geometry.TYPENAME_GEOMETRYCOLLECTION.equals(type)) {
+      return geometryFactory.createGeometryCollection(
+          geometries == null ? new Geometry[0] : geometries.toArray(Geometry[]::new));
+    }
+    if (coordinates == null) {
+      throw new IllegalArgumentException("GeoJSON " + type + " has no coordinates");
+    }
+    return switch (type) {
+      case Geometry.TYPENAME_POINT -> coordinates instanceof Positions position
+          ? geometryFactory.createPoint(sequence(position, geometryFactory))
+          : geometryFactory.createPoint();
+      case Geometry.TYPENAME_LINESTRING -> lineString(coordinates, geometryFactory);
+      case Geometry.TYPENAME_POLYGON -> polygon(coordinates, geometryFactory);
+      case Geometry.TYPENAME_MULTIPOINT -> geometryFactory.createMultiPoint(positions(coordinates, geometryFactory));
+      case Geometry.TYPENAME_MULTILINESTRING -> geometryFactory.createMultiLineString(
+          children(coordinates).stream().map(line -> lineString(line, geometryFactory)).toArray(LineString[]::new));
+      case Geometry.TYPENAME_MULTIPOLYGON -> geometryFactory.createMultiPolygon(
+          children(coordinates).stream().map(polygon -> polygon(polygon, geometryFactory)).toArray(Polygon[]::new));
+      default -> throw new IllegalArgumentException("Unsupported GeoJSON geometry type " + type);
+    };
+  }
+
+  private static LineString lineString(Object coordinates, GeometryFactory geometryFactory) {
+    return geometryFactory.createLineString(positions(coordinates, geometryFactory));
+  }
+
+  private static Polygon polygon(Object coordinates, GeometryFactory geometryFactory) {
+    List<?> rings = children(coordinates);
+    if (rings.isEmpty()) {
+      return geometryFactory.createPolygon();
+    }
+    LinearRing shell = geometryFactory.createLinearRing(positions(rings.get(0), geometryFactory));
+    LinearRing[] holes = new LinearRing[rings.size() - 1];
+    for (int i = 1; i < rings.size(); i++) {
+      holes[i - 1] = geometryFactory.createLinearRing(positions(rings.get(i), geometryFactory));
+    }
+    return geometryFactory.createPolygon(shell, holes);
+  }
+
+  private static CoordinateSequence positions(Object coordinates, GeometryFactory geometryFactory) {
+    if (coordinates instanceof Positions positions) {
+      return sequence(positions, geometryFactory);
+    }
+    if (coordinates instanceof List<?> list && list.isEmpty()) {
+      return geometryFactory.getCoordinateSequenceFactory().create(0, 2);
+    }
+    throw new IllegalArgumentException("GeoJSON coordinates are not a list of positions");
+  }
+
+  private static List<?> children(Object coordinates) {
+    if (coordinates instanceof List<?> list) {
+      return list;
+    }
+    throw new IllegalArgumentException("GeoJSON coordinates are nested too shallowly");
+  }
+
+  private static CoordinateSequence sequence(Positions positions, GeometryFactory geometryFactory) {
+    return Sequences.xy(positions.xy, positions.size, geometryFactory);
+  }
+
+  /**
+   * A growable, flat x/y buffer for one position list.
+   */
+  private static final class Positions {
+
+    private double[] xy;
+    private int size;
+
+    private Positions(int capacity) {
+      xy = new double[2 * capacity];
+    }
+
+    private void add(double x, double y) {
+      if (2 * size + 2 > xy.length) {
+        xy = Arrays.copyOf(xy, xy.length * 2);
+      }
+      xy[2 * size] = x;
+      xy[2 * size + 1] = y;
+      size++;
+    }
+  }
+
+  /**
+   * The array-level events of a coordinates value. {@link #hasNext()} and {@link #nextIsNumber()} only look at the next
+   * element; the other methods consume it.
+   */
+  private interface Source {
+
+    void startArray();
+
+    void endArray();
+
+    boolean hasNext();
+
+    boolean nextIsNumber();
+
+    double readNumber();
+  }
+
+  private static final class JsonSource implements Source {
+
+    private final JsonParser parser;
+    private JsonToken next;
+
+    /**
+     * Starts at the parser's current token, the opening bracket of the coordinates array.
+     */
+    private JsonSource(JsonParser parser) {
+      this.parser = parser;
+      this.next = parser.currentToken();
+    }
+
+    private JsonToken peek() {
+      if (next == null) {
+        try {
+          next = parser.nextToken();
+        } catch (IOException ex) {
+          throw new UncheckedIOException(ex);
+        }
+      }
+      return next;
+    }
+
+    private void consume(JsonToken expected) {
+      if (peek() != expected) {
+        throw new IllegalArgumentException("Expected " + expected + " in GeoJSON coordinates, found " + next);
+      }
+      next = null;
+    }
+
+    @Override
+    public void startArray() {
+      consume(JsonToken.START_ARRAY);
+    }
+
+    @Override
+    public void endArray() {
+      consume(JsonToken.END_ARRAY);
+    }
+
+    @Override
+    public boolean hasNext() {
+      return peek() != JsonToken.END_ARRAY;
+    }
+
+    @Override
+    public boolean nextIsNumber() {
+      return peek() == JsonToken.VALUE_NUMBER_FLOAT || peek() == JsonToken.VALUE_NUMBER_INT;
+    }
+
+    @Override
+    public double readNumber() {
+      if (!nextIsNumber()) {
+        throw new IllegalArgumentException("Expected a number in GeoJSON coordinates, found " + next);
+      }
+      try {
+        double value = parser.getDoubleValue();
+        next = null;
+        return value;
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    }
+  }
+
+  private static final class BsonSource implements Source {
+
+    private final BsonReader reader;
+    private BsonType next;
+
+    /**
+     * Starts with the reader positioned on the coordinates array value.
+     */
+    private BsonSource(BsonReader reader) {
+      this.reader = reader;
+    }
+
+    private BsonType peek() {
+      if (next == null) {
+        next = reader.readBsonType();
+      }
+      return next;
+    }
+
+    @Override
+    public void startArray() {
+      reader.readStartArray();
+      next = null;
+    }
+
+    @Override
+    public void endArray() {
+      peek();
+      reader.readEndArray();
+      next = null;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return peek() != BsonType.END_OF_DOCUMENT;
+    }
+
+    @Override
+    public boolean nextIsNumber() {
+      BsonType type = peek();
+      return type == BsonType.DOUBLE || type == BsonType.INT32 || type == BsonType.INT64;
+    }
+
+    @Override
+    public double readNumber() {
+      double value = switch (peek()) {
+        case DOUBLE -> reader.readDouble();
+        case INT32 -> reader.readInt32();
+        case INT64 -> reader.readInt64();
+        default -> throw new IllegalArgumentException("Expected a number in GeoJSON coordinates, found " + next);
+      };
+      next = null;
+      return value;
+    }
+  }
+
+  private static final class ListSource implements Source {
+
+    private final Deque<Iterator<?>> open = new ArrayDeque<>();
+    private List<?> pending;
+    private Object next;
+    private boolean peeked;
+
+    /**
+     * Starts on the given coordinates list.
+     */
+    private ListSource(List<?> coordinates) {
+      this.pending = coordinates;
+    }
+
+    private Object peek() {
+      if (!peeked) {
+        Iterator<?> current = open.peek();
+        next = current != null && current.hasNext() ? current.next() : null;
+        peeked = true;
+      }
+      return next;
+    }
+
+    @Override
+    public void startArray() {
+      Object value = pending != null ? pending : peek();
+      if (!(value instanceof List<?> list)) {
+        throw new IllegalArgumentException("Expected an array in GeoJSON coordinates, found " + value);
+      }
+      open.push(list.iterator());
+      pending = null;
+      peeked = false;
+    }
+
+    @Override
+    public void endArray() {
+      if (peek() != null) {
+        throw new IllegalArgumentException("Unexpected element in GeoJSON coordinates: " + next);
+      }
+      open.pop();
+      peeked = false;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return peek() != null;
+    }
+
+    @Override
+    public boolean nextIsNumber() {
+      return peek() instanceof Number;
+    }
+
+    @Override
+    public double readNumber() {
+      if (!(peek() instanceof Number number)) {
+        throw new IllegalArgumentException("Expected a number in GeoJSON coordinates, found " + next);
+      }
+      peeked = false;
+      return number.doubleValue();
+    }
+  }
+}
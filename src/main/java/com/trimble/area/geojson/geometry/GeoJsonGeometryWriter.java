@@ -0,0 +1,255 @@
+package com.trimble.area.geojson.geometry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * Writes JTS geometries as GeoJSON geometry objects straight from their coordinate sequences, either to a Jackson
+ * {@link JsonGenerator} or to a BSON {@link BsonWriter}, without building a GeoJSON string or boxed coordinate lists.
+ */
+public final class GeoJsonGeometryWriter {
+
+  private GeoJsonGeometryWriter() {
+  }
+
+  public static void write(Geometry geometry, JsonGenerator generator) {
+    write(geometry, new JsonSink(generator));
+  }
+
+  public static void write(Geometry geometry, BsonWriter writer) {
+    write(geometry, new BsonSink(writer));
+  }
+
+  /**
+   * Copies a stored GeoJSON document from BSON to JSON token by token, e.g. straight from the raw bytes returned by
+   * Mongo to the response, without decoding it into a geometry or a {@code Document}.
+   */
+  public static void transcode(BsonReader reader, JsonGenerator generator) throws IOException {
+    reader.readBsonType();
+    transcodeValue(reader, generator);
+  }
+
+  private static void transcodeValue(BsonReader reader, JsonGenerator generator) throws IOException {
+    switch (reader.getCurrentBsonType()) {
+      case DOCUMENT -> {
+        reader.readStartDocument();
+        generator.writeStartObject();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+          generator.writeFieldName(reader.readName());
+          transcodeValue(reader, generator);
+        }
+        reader.readEndDocument();
+        generator.writeEndObject();
+      }
+      case ARRAY -> {
+        reader.readStartArray();
+        generator.writeStartArray();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+          transcodeValue(reader, generator);
+        }
+        reader.readEndArray();
+        generator.writeEndArray();
+      }
+      case DOUBLE -> generator.writeNumber(reader.readDouble());
+      case INT32 -> generator.writeNumber(reader.readInt32());
+      case INT64 -> generator.writeNumber(reader.readInt64());
+      case STRING -> generator.writeString(reader.readString());
+      case BOOLEAN -> generator.writeBoolean(reader.readBoolean());
+      default -> {
+        // GeoJSON has no other value types
+        reader.skipValue();
+        generator.writeNull();
+      }
+    }
+  }
+
+  private static void write(Geometry geometry, Sink sink) {
+    sink.startObject();
+    sink.name("type");
+    sink.string(geometry.getGeometryType());
+    if (Geometry.TYPENAME_GEOMETRYCOLLECTION.equals(geometry.getGeometryType())) {
+      sink.name("geometries");
+      sink.startArray();
+      for (int i = 0; i < geometry.getNumGeometries(); i++) {
+        write(geometry.getGeometryN(i), sink);
+      }
+      sink.endArray();
+    } else {
+      sink.name("coordinates");
+      writeCoordinates(geometry, sink);
+    }
+    sink.endObject();
+  }
+
+  private static void writeCoordinates(Geometry geometry, Sink sink) {
+    if (geometry instanceof Point point) {
+      if (point.isEmpty()) {
+        sink.startArray();
+        sink.endArray();
+      } else {
+        writePosition(point.getCoordinateSequence(), 0, sink);
+      }
+    } else if (geometry instanceof LineString lineString) {
+      writePositions(lineString.getCoordinateSequence(), sink);
+    } else if (geometry instanceof Polygon polygon) {
+      writePolygon(polygon, sink);
+    } else if (geometry instanceof MultiPoint || geometry instanceof MultiLineString || geometry instanceof MultiPolygon) {
+      sink.startArray();
+      for (int i = 0; i < geometry.getNumGeometries(); i++) {
+        writeCoordinates(geometry.getGeometryN(i), sink);
+      }
+      sink.endArray();
+    } else {
+      throw new IllegalArgumentException("Unsupported geometry type " + geometry.getGeometryType());
+    }
+  }
+
+  private static void writePolygon(Polygon polygon, Sink sink) {
+    sink.startArray();
+    if (!polygon.isEmpty()) {
+      writePositions(polygon.getExteriorRing().getCoordinateSequence(), sink);
+      for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+        writePositions(polygon.getInteriorRingN(i).getCoordinateSequence(), sink);
+      }
+    }
+    sink.endArray();
+  }
+
+  private static void writePositions(CoordinateSequence sequence, Sink sink) {
+    sink.startArray();
+    for (int i = 0; i < sequence.size(); i++) {
+      writePosition(sequence, i, sink);
+    }
+    sink.endArray();
+  }
+
+  private static void writePosition(CoordinateSequence sequence, int index, Sink sink) {
+    sink.startArray();
+    sink.number(sequence.getX(index));
+    sink.number(sequence.getY(index));
+    sink.endArray();
+  }
+
+  private interface Sink {
+
+    void startObject();
+
+    void endObject();
+
+    void name(String name);
+
+    void string(String value);
+
+    void startArray();
+
+    void endArray();
+
+    void number(double value);
+  }
+
+  private record JsonSink(JsonGenerator generator) implements Sink {
+
+    @Override
+    public void startObject() {
+      run(generator::writeStartObject);
+    }
+
+    @Override
+    public void endObject() {
+      run(generator::writeEndObject);
+    }
+
+    @Override
+    public void name(String name) {
+      run(() -> generator.writeFieldName(name));
+    }
+
+    @Override
+    public void string(String value) {
+      run(() -> generator.writeString(value));
+    }
+
+    @Override
+    public void startArray() {
+      run(generator::writeStartArray);
+    }
+
+    @Override
+    public void endArray() {
+      run(generator::writeEndArray);
+    }
+
+    @Override
+    public void number(double value) {
+      try {
+        generator.writeNumber(value);
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    }
+
+    private static void run(IoAction action) {
+      try {
+        action.run();
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    }
+  }
+
+  @FunctionalInterface
+  private interface IoAction {
+    void run() throws IOException;
+  }
+
+  private record BsonSink(BsonWriter writer) implements Sink {
+
+    @Override
+    public void startObject() {
+      writer.writeStartDocument();
+    }
+
+    @Override
+    public void endObject() {
+      writer.writeEndDocument();
+    }
+
+    @Override
+    public void name(String name) {
+      writer.writeName(name);
+    }
+
+    @Override
+    public void string(String value) {
+      writer.writeString(value);
+    }
+
+    @Override
+    public void startArray() {
+      writer.writeStartArray();
+    }
+
+    @Override
+    public void endArray() {
+      writer.writeEndArray();
+    }
+
+    @Override
+    public void number(double value) {
+      writer.writeDouble(value);
+    }
+  }
+}
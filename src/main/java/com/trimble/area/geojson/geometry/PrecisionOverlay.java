@@ -0,0 +1,40 @@
+package com.trimble.area.geojson.geometry;
+
+import java.util.Collection;
+
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.operation.overlayng.OverlayNG;
+import org.locationtech.jts.operation.overlayng.OverlayNGRobust;
+import org.locationtech.jts.operation.overlayng.UnaryUnionNG;
+import org.locationtech.jts.operation.union.UnaryUnionOp;
+
+/**
+ * Overlays that snap-round to the factory's precision model while noding. With a fixed model the result is valid and
+ * already on the precision grid, so merges need neither a precision reduction nor a validity check afterwards; with a
+ * floating model this falls back to the robust floating overlay.
+ */
+public final class PrecisionOverlay {
+
+  private PrecisionOverlay() {
+  }
+
+  public static Geometry overlay(Geometry a, Geometry b, int opCode, PrecisionModel precisionModel) {
+    if (precisionModel.isFloating()) {
+      return OverlayNGRobust.overlay(a, b, opCode);
+    }
+    return OverlayNG.overlay(a, b, opCode, precisionModel);
+  }
+
+  public static Geometry union(Geometry a, Geometry b, PrecisionModel precisionModel) {
+    return overlay(a, b, OverlayNG.UNION, precisionModel);
+  }
+
+  public static Geometry union(Collection<Geometry> geometries, GeometryFactory geometryFactory) {
+    if (geometryFactory.getPrecisionModel().isFloating()) {
+      return UnaryUnionOp.union(geometries, geometryFactory);
+    }
+    return UnaryUnionNG.union(geometryFactory.buildGeometry(geometries), geometryFactory.getPrecisionModel());
+  }
+}
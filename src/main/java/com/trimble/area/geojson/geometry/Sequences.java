@@ -0,0 +1,32 @@
+package com.trimble.area.geojson.geometry;
+
+import java.util.Arrays;
+
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFactory;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequenceFactory;
+
+/**
+ * Builds coordinate sequences from flat x/y buffers. With a packed double factory the buffer becomes the sequence's
+ * backing array, so no {@code Coordinate} is allocated per vertex.
+ */
+final class Sequences {
+
+  private Sequences() {
+  }
+
+  static CoordinateSequence xy(double[] xy, int size, GeometryFactory geometryFactory) {
+    CoordinateSequenceFactory factory = geometryFactory.getCoordinateSequenceFactory();
+    if (factory instanceof PackedCoordinateSequenceFactory packed
+        && packed.getType() == PackedCoordinateSequenceFactory.DOUBLE) {
+      return packed.create(xy.length == 2 * size ? xy : Arrays.copyOf(xy, 2 * size), 2);
+    }
+    CoordinateSequence sequence = factory.create(size, 2);
+    for (int i = 0; i < size; i++) {
+      sequence.setOrdinate(i, CoordinateSequence.X, xy[2 * i]);
+      sequence.setOrdinate(i, CoordinateSequence.Y, xy[2 * i + 1]);
+    }
+    return sequence;
+  }
+}
@@ -0,0 +1,364 @@
+package com.trimble.area.geojson.geometry;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * Compact binary encoding of 2D geometries on a fixed precision grid, in the spirit of TWKB. Ordinates are stored as
+ * grid units, each coordinate as the zig-zag varint delta from the previous one, so a vertex of a merged polygon takes
+ * two to four bytes instead of the sixteen of WKB or the ~40 of BSON GeoJSON. Geometries snapped to the scale round
+ * trip exactly. A shape can also be written as GeoJSON straight from its bytes, without building a geometry.
+ */
+public final class ShapeCodec {
+
+  private static final int FORMAT = 1;
+  private static final int POINT = 1;
+  private static final int LINE_STRING = 2;
+  private static final int POLYGON = 3;
+  private static final int MULTI_POINT = 4;
+  private static final int MULTI_LINE_STRING = 5;
+  private static final int MULTI_POLYGON = 6;
+  private static final int GEOMETRY_COLLECTION = 7;
+
+  private ShapeCodec() {
+  }
+
+  public static byte[] encode(Geometry geometry, int scale) {
+    Writer writer = new Writer(scale, Math.max(64, geometry.getNumPoints() * 4 + 16));
+    writer.varint(FORMAT);
+    writer.varint(scale);
+    writer.geometry(geometry);
+    return writer.toByteArray();
+  }
+
+  public static Geometry decode(byte[] shape, GeometryFactory geometryFactory) {
+    Reader reader = new Reader(shape, geometryFactory);
+    reader.header();
+    return reader.geometry();
+  }
+
+  /**
+   * Writes the shape as a GeoJSON geometry object, decoding ordinates as they are written.
+   */
+  public static void writeGeoJson(byte[] shape, JsonGenerator generator) throws IOException {
+    Reader reader = new Reader(shape, null);
+    reader.header();
+    reader.writeGeometry(generator);
+  }
+
+  private static final class Writer {
+
+    private final double scale;
+    private byte[] bytes;
+    private int size;
+    private long x;
+    private long y;
+
+    private Writer(int scale, int capacity) {
+      this.scale = scale;
+      this.bytes = new byte[capacity];
+    }
+
+    private void geometry(Geometry geometry) {
+      if (geometry instanceof Point point) {
+        varint(POINT);
+        sequence(point.getCoordinateSequence());
+      } else if (geometry instanceof LineString line) {
+        varint(LINE_STRING);
+        sequence(line.getCoordinateSequence());
+      } else if (geometry instanceof Polygon polygon) {
+        varint(POLYGON);
+        polygon(polygon);
+      } else if (geometry instanceof MultiPolygon) {
+        varint(MULTI_POLYGON);
+        varint(geometry.getNumGeometries());
+        for (int i = 0; i < geometry.getNumGeometries(); i++) {
+          polygon((Polygon) geometry.getGeometryN(i));
+        }
+      } else if (geometry instanceof MultiLineString) {
+        varint(MULTI_LINE_STRING);
+        varint(geometry.getNumGeometries());
+        for (int i = 0; i < geometry.getNumGeometries(); i++) {
+          sequence(((LineString) geometry.getGeometryN(i)).getCoordinateSequence());
+        }
+      } else if (geometry instanceof MultiPoint) {
+        varint(MULTI_POINT);
+        varint(geometry.getNumGeometries());
+        for (int i = 0; i < geometry.getNumGeometries(); i++) {
+          sequence(((Point) geometry.getGeometryN(i)).getCoordinateSequence());
+        }
+      } else if (geometry instanceof GeometryCollection) {
+        varint(GEOMETRY_COLLECTION);
+        varint(geometry.getNumGeometries());
+        for (int i = 0; i < geometry.getNumGeometries(); i++) {
+          geometry(geometry.getGeometryN(i));
+        }
+      } else {
+        throw new IllegalArgumentException("Unsupported geometry type " + geometry.getGeometryType());
+      }
+    }
+
+    private void polygon(Polygon polygon) {
+      if (polygon.isEmpty()) {
+        varint(0);
+        return;
+      }
+      varint(polygon.getNumInteriorRing() + 1);
+      sequence(polygon.getExteriorRing().getCoordinateSequence());
+      for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+        sequence(polygon.getInteriorRingN(i).getCoordinateSequence());
+      }
+    }
+
+    private void sequence(CoordinateSequence sequence) {
+      int count = sequence.size();
+      varint(count);
+      for (int i = 0; i < count; i++) {
+        long nextX = Math.round(sequence.getX(i) * scale);
+        long nextY = Math.round(sequence.getY(i) * scale);
+        varint(zigZag(nextX - x));
+        varint(zigZag(nextY - y));
+        x = nextX;
+        y = nextY;
+      }
+    }
+
+    private void varint(long value) {
+      if (size + 10 > bytes.length) {
+        bytes = Arrays.copyOf(bytes, bytes.length * 2);
+      }
+      while ((value & ~0x7FL) != 0) {
+        bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      bytes[size++] = (byte) value;
+    }
+
+    private static long zigZag(long value) {
+      return (value << 1) ^ (value >> 63);
+    }
+
+    private byte[] toByteArray() {
+      return Arrays.copyOf(bytes, size);
+    }
+  }
+
+  private static final class Reader {
+
+    private final byte[] bytes;
+    private final GeometryFactory geometryFactory;
+    private int pos;
+    private int scale;
+    private long x;
+    private long y;
+
+    private Reader(byte[] bytes, GeometryFactory geometryFactory) {
+      this.bytes = bytes;
+      this.geometryFactory = geometryFactory;
+    }
+
+    private void header() {
+      int format = (int) varint();
+      if (format != FORMAT) {
+        throw new IllegalArgumentException("Unknown shape format " + format);
+      }
+      scale = (int) varint();
+    }
+
+    private Geometry geometry() {
+      int type = (int) varint();
+      return switch (type) {
+        case POINT -> geometryFactory.createPoint(sequence());
+        case LINE_STRING -> geometryFactory.createLineString(sequence());
+        case POLYGON -> polygon();
+        case MULTI_POINT -> {
+          Point[] points = new Point[count()];
+          for (int i = 0; i < points.length; i++) {
+            points[i] = geometryFactory.createPoint(sequence());
+          }
+          yield geometryFactory.createMultiPoint(points);
+        }
+        case MULTI_LINE_STRING -> {
+          LineString[] lines = new LineString[count()];
+          for (int i = 0; i < lines.length; i++) {
+            lines[i] = geometryFactory.createLineString(sequence());
+          }
+          yield geometryFactory.createMultiLineString(lines);
+        }
+        case MULTI_POLYGON -> {
+          Polygon[] polygons = new Polygon[count()];
+          for (int i = 0; i < polygons.length; i++) {
+            polygons[i] = polygon();
+          }
+          yield geometryFactory.createMultiPolygon(polygons);
+        }
+        case GEOMETRY_COLLECTION -> {
+          Geometry[] geometries = new Geometry[count()];
+          for (int i = 0; i < geometries.length; i++) {
+            geometries[i] = geometry();
+          }
+          yield geometryFactory.createGeometryCollection(geometries);
+        }
+        default -> throw new IllegalArgumentException("Unknown shape geometry type " + type);
+      };
+    }
+
+    private Polygon polygon() {
+      int rings = count();
+      if (rings == 0) {
+        return geometryFactory.createPolygon();
+      }
+      LinearRing shell = geometryFactory.createLinearRing(sequence());
+      LinearRing[] holes = new LinearRing[rings - 1];
+      for (int i = 0; i < holes.length; i++) {
+        holes[i] = geometryFactory.createLinearRing(sequence());
+      }
+      return geometryFactory.createPolygon(shell, holes);
+    }
+
+    private CoordinateSequence sequence() {
+      int count = count();
+      double[] xy = new double[2 * count];
+      for (int i = 0; i < count; i++) {
+        x += unZigZag(varint());
+        y += unZigZag(varint());
+        // Same rounding as PrecisionModel.makePrecise, so snapped ordinates come back identical
+        xy[2 * i] = x / (double) scale;
+        xy[2 * i + 1] = y / (double) scale;
+      }
+      return Sequences.xy(xy, count, geometryFactory);
+    }
+
+    private void writeGeometry(JsonGenerator generator) throws IOException {
+      int type = (int) varint();
+      generator.writeStartObject();
+      generator.writeStringField("type", typeName(type));
+      if (type == GEOMETRY_COLLECTION) {
+        generator.writeArrayFieldStart("geometries");
+        int count = count();
+        for (int i = 0; i < count; i++) {
+          writeGeometry(generator);
+        }
+      } else {
+        generator.writeArrayFieldStart("coordinates");
+        switch (type) {
+          case POINT -> writePoint(generator);
+          case LINE_STRING -> writePositions(generator);
+          case POLYGON -> writeRings(generator);
+          default -> {
+            int count = count();
+            for (int i = 0; i < count; i++) {
+              generator.writeStartArray();
+              if (type == MULTI_POINT) {
+                writePoint(generator);
+              } else if (type == MULTI_LINE_STRING) {
+                writePositions(generator);
+              } else {
+                writeRings(generator);
+              }
+              generator.writeEndArray();
+            }
+          }
+        }
+      }
+      generator.writeEndArray();
+      generator.writeEndObject();
+    }
+
+    /**
+     * Writes the ordinates of a point into the open array, which stays empty for an empty point.
+     */
+    private void writePoint(JsonGenerator generator) throws IOException {
+      int count = count();
+      for (int i = 0; i < count; i++) {
+        x += unZigZag(varint());
+        y += unZigZag(varint());
+        if (i == 0) {
+          generator.writeNumber(x / (double) scale);
+          generator.writeNumber(y / (double) scale);
+        }
+      }
+    }
+
+    /**
+     * Writes the positions of a sequence into the open array.
+     */
+    private void writePositions(JsonGenerator generator) throws IOException {
+      int count = count();
+      for (int i = 0; i < count; i++) {
+        x += unZigZag(varint());
+        y += unZigZag(varint());
+        generator.writeStartArray();
+        generator.writeNumber(x / (double) scale);
+        generator.writeNumber(y / (double) scale);
+        generator.writeEndArray();
+      }
+    }
+
+    /**
+     * Writes the rings of a polygon into the open array.
+     */
+    private void writeRings(JsonGenerator generator) throws IOException {
+      int rings = count();
+      for (int i = 0; i < rings; i++) {
+        generator.writeStartArray();
+        writePositions(generator);
+        generator.writeEndArray();
+      }
+    }
+
+    private static String typeName(int type) {
+      return switch (type) {
+        case POINT -> Geometry.TYPENAME_POINT;
+        case LINE_STRING -> Geometry.TYPENAME_LINESTRING;
+        case POLYGON -> Geometry.TYPENAME_POLYGON;
+        case MULTI_POINT -> Geometry.TYPENAME_MULTIPOINT;
+        case MULTI_LINE_STRING -> Geometry.TYPENAME_MULTILINESTRING;
+        case MULTI_POLYGON -> Geometry.TYPENAME_MULTIPOLYGON;
+        case GEOMETRY_COLLECTION -> Geometry.TYPENAME_GEOMETRYCOLLECTION;
+        default -> throw new IllegalArgumentException("Unknown shape geometry type " + type);
+      };
+    }
+
+    private int count() {
+      long count = varint();
+      // Every element takes at least one byte, which bounds the allocation for corrupt input
+      if (count < 0 || count > bytes.length - pos + 1) {
+        throw new IllegalArgumentException("Corrupt shape, count " + count + " at " + pos);
+      }
+      return (int) count;
+    }
+
+    private long varint() {
+      long value = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        if (pos >= bytes.length) {
+          throw new IllegalArgumentException("Truncated shape");
+        }
+        byte b = bytes[pos++];
+        value |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return value;
+        }
+      }
+      throw new IllegalArgumentException("Corrupt shape varint at " + pos);
+    }
+
+    private static long unZigZag(long value) {
+      return (value >>> 1) ^ -(value & 1);
+    }
+  }
+}
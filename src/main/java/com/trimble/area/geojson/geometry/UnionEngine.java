@@ -0,0 +1,111 @@
+package com.trimble.area.geojson.geometry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.util.GeometryFixer;
+import org.locationtech.jts.shape.fractal.HilbertCode;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Unions large sets of polygons in parallel. Inputs are sorted along a Hilbert curve so that each leaf group is
+ * spatially compact, leaf groups are unioned on a dedicated fork-join pool, and the partial results are merged
+ * pairwise up the recursion. Every overlay snap-rounds to the factory's precision model (see {@link PrecisionOverlay}),
+ * so when the inputs are known to be valid the result is valid and on the precision grid, and no validation or repair
+ * pass is run over it.
+ */
+@Slf4j
+@Component
+public class UnionEngine implements DisposableBean {
+
+  private static final int HILBERT_LEVEL = 16;
+  private final GeometryFactory geometryFactory;
+  private final ForkJoinPool pool;
+  private final int leafSize;
+
+  public UnionEngine(GeometryFactory geometryFactory,
+                     @Value("${geo.union.parallelism:0}") int parallelism,
+                     @Value("${geo.union.leaf-size:64}") int leafSize) {
+    this.geometryFactory = geometryFactory;
+    this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    this.leafSize = Math.max(2, leafSize);
+  }
+
+  public Geometry union(List<Geometry> geometries, boolean inputsValid) {
+    if (geometries.isEmpty()) {
+      return geometryFactory.createEmpty(2);
+    }
+    if (geometries.size() == 1 && inputsValid) {
+      return geometries.get(0);
+    }
+    Geometry union;
+    if (geometries.size() <= leafSize) {
+      union = PrecisionOverlay.union(geometries, geometryFactory);
+    } else {
+      union = pool.invoke(new UnionTask(hilbertOrder(geometries), 0, geometries.size()));
+    }
+    if (!inputsValid && !union.isValid()) {
+      union = GeometryFixer.fix(union);
+    }
+    return union;
+  }
+
+  @Override
+  public void destroy() {
+    pool.shutdown();
+  }
+
+  private List<Geometry> hilbertOrder(List<Geometry> geometries) {
+    Envelope extent = new Envelope();
+    geometries.forEach(geometry -> extent.expandToInclude(geometry.getEnvelopeInternal()));
+    int side = (1 << HILBERT_LEVEL) - 1;
+    double scaleX = extent.getWidth() > 0 ? side / extent.getWidth() : 0;
+    double scaleY = extent.getHeight() > 0 ? side / extent.getHeight() : 0;
+    List<Keyed> keyed = new ArrayList<>(geometries.size());
+    for (Geometry geometry : geometries) {
+      Envelope envelope = geometry.getEnvelopeInternal();
+      int x = (int) ((envelope.centre().x - extent.getMinX()) * scaleX);
+      int y = (int) ((envelope.centre().y - extent.getMinY()) * scaleY);
+      keyed.add(new Keyed(HilbertCode.encode(HILBERT_LEVEL, x, y), geometry));
+    }
+    // Codes of level 16 use all 32 bits, so the upper half of the curve is negative as a signed int
+    keyed.sort((a, b) -> Integer.compareUnsigned(a.code(), b.code()));
+    return keyed.stream().map(Keyed::geometry).toList();
+  }
+
+  private record Keyed(int code, Geometry geometry) {
+  }
+
+  private final class UnionTask extends RecursiveTask<Geometry> {
+
+    private final List<Geometry> geometries;
+    private final int from;
+    private final int to;
+
+    private UnionTask(List<Geometry> geometries, int from, int to) {
+      this.geometries = geometries;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected Geometry compute() {
+      if (to - from <= leafSize) {
+        return PrecisionOverlay.union(geometries.subList(from, to), geometryFactory);
+      }
+      int mid = (from + to) >>> 1;
+      UnionTask left = new UnionTask(geometries, from, mid);
+      left.fork();
+      Geometry right = new UnionTask(geometries, mid, to).compute();
+      return PrecisionOverlay.union(left.join(), right, geometryFactory.getPrecisionModel());
+    }
+  }
+}
@@ -0,0 +1,229 @@
+package com.trimble.area.geojson.geometry;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.util.PolygonExtracter;
+
+/**
+ * Encodes polygon features into a single-layer Mapbox Vector Tile (version 2). Geometries must already be in tile
+ * coordinates, i.e. clipped, scaled to the layer extent and snapped to integers; rings are re-oriented as the
+ * specification requires (exterior rings positive area with y pointing down, holes negative).
+ */
+public class VectorTileEncoder {
+
+  private static final int TILE_LAYERS = 3;
+  private static final int LAYER_NAME = 1;
+  private static final int LAYER_FEATURES = 2;
+  private static final int LAYER_KEYS = 3;
+  private static final int LAYER_VALUES = 4;
+  private static final int LAYER_EXTENT = 5;
+  private static final int LAYER_VERSION = 15;
+  private static final int FEATURE_TAGS = 2;
+  private static final int FEATURE_TYPE = 3;
+  private static final int FEATURE_GEOMETRY = 4;
+  private static final int VALUE_STRING = 1;
+  private static final int GEOM_TYPE_POLYGON = 3;
+  private static final int MOVE_TO = 1;
+  private static final int LINE_TO = 2;
+  private static final int CLOSE_PATH = 7;
+
+  private final String layerName;
+  private final int extent;
+  private final Map<String, Integer> keys = new LinkedHashMap<>();
+  private final Map<String, Integer> values = new LinkedHashMap<>();
+  private final List<byte[]> features = new ArrayList<>();
+
+  public VectorTileEncoder(String layerName, int extent) {
+    this.layerName = layerName;
+    this.extent = extent;
+  }
+
+  /**
+   * Adds the polygons of the geometry as one feature. Returns false if nothing of it survived snapping.
+   */
+  public boolean addFeature(Geometry tileGeometry, Map<String, String> properties) {
+    IntBuffer commands = new IntBuffer();
+    int[] cursor = new int[2];
+    for (Object polygon : PolygonExtracter.getPolygons(tileGeometry)) {
+      encodePolygon((Polygon) polygon, commands, cursor);
+    }
+    if (commands.size == 0) {
+      return false;
+    }
+    IntBuffer tags = new IntBuffer();
+    properties.forEach((key, value) -> {
+      tags.add(keys.computeIfAbsent(key, k -> keys.size()));
+      tags.add(values.computeIfAbsent(value, v -> values.size()));
+    });
+    Protobuf feature = new Protobuf();
+    feature.packed(FEATURE_TAGS, tags);
+    feature.varint(FEATURE_TYPE, GEOM_TYPE_POLYGON);
+    feature.packed(FEATURE_GEOMETRY, commands);
+    features.add(feature.toByteArray());
+    return true;
+  }
+
+  public boolean isEmpty() {
+    return features.isEmpty();
+  }
+
+  public byte[] encode() {
+    Protobuf layer = new Protobuf();
+    layer.varint(LAYER_VERSION, 2);
+    layer.string(LAYER_NAME, layerName);
+    features.forEach(feature -> layer.bytes(LAYER_FEATURES, feature));
+    keys.keySet().forEach(key -> layer.string(LAYER_KEYS, key));
+    for (String value : values.keySet()) {
+      Protobuf encodedValue = new Protobuf();
+      encodedValue.string(VALUE_STRING, value);
+      layer.bytes(LAYER_VALUES, encodedValue.toByteArray());
+    }
+    layer.varint(LAYER_EXTENT, extent);
+    Protobuf tile = new Protobuf();
+    tile.bytes(TILE_LAYERS, layer.toByteArray());
+    return tile.toByteArray();
+  }
+
+  private static void encodePolygon(Polygon polygon, IntBuffer commands, int[] cursor) {
+    if (polygon.isEmpty() || !encodeRing(polygon.getExteriorRing(), true, commands, cursor)) {
+      return;
+    }
+    for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+      encodeRing(polygon.getInteriorRingN(i), false, commands, cursor);
+    }
+  }
+
+  private static boolean encodeRing(LineString ring, boolean exterior, IntBuffer commands, int[] cursor) {
+    CoordinateSequence sequence = ring.getCoordinateSequence();
+    // The closing point is implied by ClosePath; repeated points are dropped
+    IntBuffer points = new IntBuffer();
+    for (int i = 0; i < sequence.size() - 1; i++) {
+      int x = (int) Math.round(sequence.getX(i));
+      int y = (int) Math.round(sequence.getY(i));
+      int last = points.size - 2;
+      if (last < 0 || points.values[last] != x || points.values[last + 1] != y) {
+        points.add(x);
+        points.add(y);
+      }
+    }
+    int count = points.size / 2;
+    if (count < 3) {
+      return false;
+    }
+    boolean reverse = (signedArea(points) > 0) != exterior;
+    for (int k = 0; k < count; k++) {
+      int index = reverse ? (count - k) % count : k;
+      int x = points.values[2 * index];
+      int y = points.values[2 * index + 1];
+      if (k == 0) {
+        commands.add(command(MOVE_TO, 1));
+      } else if (k == 1) {
+        commands.add(command(LINE_TO, count - 1));
+      }
+      commands.add(zigZag(x - cursor[0]));
+      commands.add(zigZag(y - cursor[1]));
+      cursor[0] = x;
+      cursor[1] = y;
+    }
+    commands.add(command(CLOSE_PATH, 1));
+    return true;
+  }
+
+  /**
+   * Twice the signed area with the surveyor's formula; positive means clockwise on screen (y down).
+   */
+  private static long signedArea(IntBuffer points) {
+    long area = 0;
+    int count = points.size / 2;
+    for (int i = 0; i < count; i++) {
+      int j = (i + 1) % count;
+      area += (long) points.values[2 * i] * points.values[2 * j + 1]
+          - (long) points.values[2 * j] * points.values[2 * i + 1];
+    }
+    return area;
+  }
+
+  private static int command(int id, int count) {
+    return (id & 0x7) | (count << 3);
+  }
+
+  private static int zigZag(int value) {
+    return (value << 1) ^ (value >> 31);
+  }
+
+  private static final class IntBuffer {
+
+    private int[] values = new int[32];
+    private int size;
+
+    private void add(int value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+  }
+
+  /**
+   * The few protobuf encodings a vector tile needs.
+   */
+  private static final class Protobuf {
+
+    private static final int WIRE_VARINT = 0;
+    private static final int WIRE_LENGTH_DELIMITED = 2;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    private void varint(int field, long value) {
+      tag(field, WIRE_VARINT);
+      rawVarint(value);
+    }
+
+    private void string(int field, String value) {
+      bytes(field, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void bytes(int field, byte[] value) {
+      tag(field, WIRE_LENGTH_DELIMITED);
+      rawVarint(value.length);
+      out.writeBytes(value);
+    }
+
+    private void packed(int field, IntBuffer value) {
+      if (value.size == 0) {
+        return;
+      }
+      Protobuf packed = new Protobuf();
+      for (int i = 0; i < value.size; i++) {
+        packed.rawVarint(Integer.toUnsignedLong(value.values[i]));
+      }
+      bytes(field, packed.toByteArray());
+    }
+
+    private void tag(int field, int wireType) {
+      rawVarint(((long) field << 3) | wireType);
+    }
+
+    private void rawVarint(long value) {
+      while ((value & ~0x7FL) != 0) {
+        out.write((int) ((value & 0x7F) | 0x80));
+        value >>>= 7;
+      }
+      out.write((int) value);
+    }
+
+    private byte[] toByteArray() {
+      return out.toByteArray();
+    }
+  }
+}
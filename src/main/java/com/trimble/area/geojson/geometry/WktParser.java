@@ -0,0 +1,302 @@
+package com.trimble.area.geojson.geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.io.ParseException;
+
+/**
+ * Single-pass reader for the 2D WKT returned by PC*MILER. Ordinates are scanned straight from the string into flat
+ * {@code double} buffers, rounded to the factory's precision model, and become the backing arrays of packed coordinate
+ * sequences (see {@link Sequences}). Unlike {@code WKTReader} there is no tokenizer and no {@code Coordinate} per
+ * vertex, and since all state lives in the call, concurrent calls are safe. Z and M ordinates are read and dropped.
+ * <p>
+ * Stored boundaries and merge states are WKB, which {@code WKBReader} already decodes through the factory's coordinate
+ * sequence factory, so a packed factory covers that path as well.
+ */
+public final class WktParser {
+
+  private static final double[] POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+  // Integers up to 15 decimal digits are exact doubles, so one division by an exact power of ten rounds correctly
+  private static final int MAX_FAST_DIGITS = 15;
+
+  private WktParser() {
+  }
+
+  public static Geometry read(String wkt, GeometryFactory geometryFactory) throws ParseException {
+    Cursor cursor = new Cursor(wkt, geometryFactory);
+    try {
+      Geometry geometry = cursor.geometry();
+      cursor.skipWhitespace();
+      if (cursor.pos < wkt.length()) {
+        throw cursor.error("Unexpected text after geometry");
+      }
+      return geometry;
+    } catch (IllegalArgumentException ex) {
+      // Thrown by the factory, e.g. for a ring that is not closed
+      throw new ParseException(ex.getMessage());
+    }
+  }
+
+  private static final class Cursor {
+
+    private final String text;
+    private final GeometryFactory geometryFactory;
+    private final PrecisionModel precisionModel;
+    private double[] xy = new double[256];
+    private int pos;
+
+    private Cursor(String text, GeometryFactory geometryFactory) {
+      this.text = text;
+      this.geometryFactory = geometryFactory;
+      this.precisionModel = geometryFactory.getPrecisionModel();
+    }
+
+    private Geometry geometry() throws ParseException {
+      String type = word().toUpperCase(Locale.ROOT);
+      String next = peekWord().toUpperCase(Locale.ROOT);
+      if (next.equals("Z") || next.equals("M") || next.equals("ZM")) {
+        word();
+      }
+      boolean empty = isEmpty();
+      return switch (type) {
+        case "POINT" -> empty ? geometryFactory.createPoint() : geometryFactory.createPoint(sequence());
+        case "LINESTRING" -> empty ? geometryFactory.createLineString() : geometryFactory.createLineString(sequence());
+        case "POLYGON" -> empty ? geometryFactory.createPolygon() : polygon();
+        case "MULTIPOINT" -> empty ? geometryFactory.createMultiPoint() : multiPoint();
+        case "MULTILINESTRING" -> {
+          List<LineString> lines = new ArrayList<>();
+          if (!empty) {
+            list(() -> lines.add(isEmpty() ? geometryFactory.createLineString()
+                : geometryFactory.createLineString(sequence())));
+          }
+          yield geometryFactory.createMultiLineString(lines.toArray(LineString[]::new));
+        }
+        case "MULTIPOLYGON" -> {
+          List<Polygon> polygons = new ArrayList<>();
+          if (!empty) {
+            list(() -> polygons.add(isEmpty() ? geometryFactory.createPolygon() : polygon()));
+          }
+          yield geometryFactory.createMultiPolygon(polygons.toArray(Polygon[]::new));
+        }
+        case "GEOMETRYCOLLECTION" -> {
+          List<Geometry> geometries = new ArrayList<>();
+          if (!empty) {
+            list(() -> geometries.add(geometry()));
+          }
+          yield geometryFactory.createGeometryCollection(geometries.toArray(Geometry[]::new));
+        }
+        default -> throw error("Unknown geometry type " + type);
+      };
+    }
+
+    private Polygon polygon() throws ParseException {
+      List<LinearRing> rings = new ArrayList<>();
+      list(() -> rings.add(geometryFactory.createLinearRing(sequence())));
+      LinearRing[] holes = rings.subList(1, rings.size()).toArray(LinearRing[]::new);
+      return geometryFactory.createPolygon(rings.get(0), holes);
+    }
+
+    private Geometry multiPoint() throws ParseException {
+      skipWhitespace();
+      if (pos + 1 < text.length() && text.charAt(pos) == '(' && nextNonWhitespace(pos + 1) == '(') {
+        // MULTIPOINT ((1 2), (3 4))
+        List<Point> points = new ArrayList<>();
+        list(() -> points.add(isEmpty() ? geometryFactory.createPoint() : geometryFactory.createPoint(sequence())));
+        return geometryFactory.createMultiPoint(points.toArray(Point[]::new));
+      }
+      // MULTIPOINT (1 2, 3 4)
+      return geometryFactory.createMultiPoint(sequence());
+    }
+
+    /**
+     * Reads {@code (element, element, ...)}.
+     */
+    private void list(Element element) throws ParseException {
+      expect('(');
+      do {
+        element.read();
+      } while (separator());
+    }
+
+    /**
+     * Reads {@code (x y, x y, ...)} into a new sequence.
+     */
+    private CoordinateSequence sequence() throws ParseException {
+      expect('(');
+      int size = 0;
+      do {
+        if (2 * size + 2 > xy.length) {
+          xy = Arrays.copyOf(xy, xy.length * 2);
+        }
+        xy[2 * size] = precise(number());
+        xy[2 * size + 1] = precise(number());
+        while (nextIsNumber()) {
+          number();
+        }
+        size++;
+      } while (separator());
+      return Sequences.xy(Arrays.copyOf(xy, 2 * size), size, geometryFactory);
+    }
+
+    private double precise(double value) {
+      return precisionModel.isFloating() ? value : precisionModel.makePrecise(value);
+    }
+
+    /**
+     * Consumes a comma and returns true, or consumes the closing parenthesis and returns false.
+     */
+    private boolean separator() throws ParseException {
+      skipWhitespace();
+      if (pos < text.length()) {
+        char c = text.charAt(pos++);
+        if (c == ',') {
+          return true;
+        }
+        if (c == ')') {
+          return false;
+        }
+      }
+      throw error("Expected ',' or ')'");
+    }
+
+    private double number() throws ParseException {
+      skipWhitespace();
+      int start = pos;
+      int length = text.length();
+      boolean negative = false;
+      if (pos < length && (text.charAt(pos) == '-' || text.charAt(pos) == '+')) {
+        negative = text.charAt(pos) == '-';
+        pos++;
+      }
+      long mantissa = 0;
+      int digits = 0;
+      int fractionDigits = 0;
+      boolean anyDigit = false;
+      boolean fraction = false;
+      boolean fast = true;
+      for (; pos < length; pos++) {
+        char c = text.charAt(pos);
+        if (c >= '0' && c <= '9') {
+          anyDigit = true;
+          if (digits < MAX_FAST_DIGITS && fractionDigits < POWERS_OF_TEN.length - 1) {
+            mantissa = mantissa * 10 + (c - '0');
+            if (mantissa != 0) {
+              digits++;
+            }
+            if (fraction) {
+              fractionDigits++;
+            }
+          } else {
+            fast = false;
+          }
+        } else if (c == '.' && !fraction) {
+          fraction = true;
+        } else if (c == 'e' || c == 'E') {
+          fast = false;
+          pos++;
+          if (pos < length && (text.charAt(pos) == '-' || text.charAt(pos) == '+')) {
+            pos++;
+          }
+          while (pos < length && Character.isDigit(text.charAt(pos))) {
+            pos++;
+          }
+          break;
+        } else {
+          break;
+        }
+      }
+      if (!anyDigit) {
+        throw error("Expected a number");
+      }
+      if (!fast) {
+        try {
+          return Double.parseDouble(text.substring(start, pos));
+        } catch (NumberFormatException ex) {
+          throw error("Invalid number " + text.substring(start, pos));
+        }
+      }
+      double value = mantissa / POWERS_OF_TEN[fractionDigits];
+      return negative ? -value : value;
+    }
+
+    private boolean nextIsNumber() {
+      skipWhitespace();
+      if (pos >= text.length()) {
+        return false;
+      }
+      char c = text.charAt(pos);
+      return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.';
+    }
+
+    private boolean isEmpty() throws ParseException {
+      if (peekWord().equalsIgnoreCase("EMPTY")) {
+        word();
+        return true;
+      }
+      return false;
+    }
+
+    private String word() throws ParseException {
+      String word = peekWord();
+      if (word.isEmpty()) {
+        throw error("Expected a word");
+      }
+      pos += word.length();
+      return word;
+    }
+
+    private String peekWord() {
+      skipWhitespace();
+      int end = pos;
+      while (end < text.length() && Character.isLetter(text.charAt(end))) {
+        end++;
+      }
+      return text.substring(pos, end);
+    }
+
+    private void expect(char expected) throws ParseException {
+      skipWhitespace();
+      if (pos >= text.length() || text.charAt(pos) != expected) {
+        throw error("Expected '" + expected + "'");
+      }
+      pos++;
+    }
+
+    private char nextNonWhitespace(int from) {
+      int i = from;
+      while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+        i++;
+      }
+      return i < text.length() ? text.charAt(i) : 0;
+    }
+
+    private void skipWhitespace() {
+      while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+        pos++;
+      }
+    }
+
+    private ParseException error(String message) {
+      return new ParseException(message + " at position " + pos);
+    }
+  }
+
+  @FunctionalInterface
+  private interface Element {
+
+    void read() throws ParseException;
+  }
+}
@@ -0,0 +1,139 @@
+package com.trimble.area.geojson.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Merge pipeline metrics, exported with the other Micrometer meters through {@code /actuator/prometheus}. With
+ * {@code geo.metrics.enabled=false} nothing is registered or observed and the recording methods return at once, so the
+ * merge path does no timing or vertex counting. Services register their own meters through {@link #counter},
+ * {@link #timer} and {@link #gauge}, which hand out meters that record nothing while metrics are disabled.
+ */
+@Slf4j
+@Component
+public class GeoMetrics {
+
+  private final MeterRegistry meterRegistry;
+  private final ObservationRegistry observationRegistry;
+  private final boolean enabled;
+  private final Map<String, Timer> stageTimers = new ConcurrentHashMap<>();
+  private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+  public GeoMetrics(MeterRegistry meterRegistry, ObjectProvider<ObservationRegistry> observationRegistry,
+                    @Value("${geo.metrics.enabled:true}") boolean enabled) {
+    // A composite registry without registries hands out meters that record nothing
+    this.meterRegistry = enabled ? meterRegistry : new CompositeMeterRegistry();
+    this.observationRegistry = enabled ? observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP)
+        : ObservationRegistry.NOOP;
+    this.enabled = enabled;
+    log.info("Metrics - merge pipeline metrics {}", enabled ? "enabled" : "disabled");
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Records one stage of a merge: union, difference, boundary parse and repair, serialization, persistence.
+   */
+  public void recordStage(String stage, long nanos) {
+    if (!enabled) {
+      return;
+    }
+    stageTimers.computeIfAbsent(stage, name -> Timer.builder("geo.merge.stage")
+            .tag("stage", name)
+            .description("Time spent in one stage of a merge")
+            .register(meterRegistry))
+        .record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Records the boundaries a merge resolved for one boundary type and their vertex count.
+   */
+  public void recordInputs(String type, int polygons, long vertices) {
+    if (!enabled) {
+      return;
+    }
+    summary("geo.merge.input.polygons", "type", type, "Boundary polygons resolved for a merge").record(polygons);
+    summary("geo.merge.input.vertices", "type", type, "Vertices of the boundary polygons resolved for a merge")
+        .record(vertices);
+  }
+
+  /**
+   * Runs a PC*MILER call as a {@code geo.fetch.vendor} observation, which is timed per endpoint and becomes a span
+   * when a tracing bridge is on the classpath. The number of codes in the batch is recorded per endpoint.
+   */
+  public <T> T observeVendorCall(String endpoint, int codes, Supplier<T> call) {
+    if (!enabled) {
+      return call.get();
+    }
+    summary("geo.fetch.batch.codes", "endpoint", endpoint, "Codes requested in one vendor call").record(codes);
+    return Observation.createNotStarted("geo.fetch.vendor", observationRegistry)
+        .contextualName("pcmiler " + endpoint)
+        .lowCardinalityKeyValue("endpoint", endpoint)
+        .highCardinalityKeyValue("codes", String.valueOf(codes))
+        .observe(call);
+  }
+
+  /**
+   * Exposes the hit and miss counts a cache already keeps as {@code geo.cache.gets}; reading them costs nothing on the
+   * lookup path.
+   */
+  public <T> void registerCache(String cache, T source, ToDoubleFunction<T> hits, ToDoubleFunction<T> misses) {
+    if (!enabled) {
+      return;
+    }
+    FunctionCounter.builder("geo.cache.gets", source, hits)
+        .tags("cache", cache, "result", "hit")
+        .description("Cache lookups")
+        .register(meterRegistry);
+    FunctionCounter.builder("geo.cache.gets", source, misses)
+        .tags("cache", cache, "result", "miss")
+        .description("Cache lookups")
+        .register(meterRegistry);
+  }
+
+  public Counter counter(String name, String description) {
+    return Counter.builder(name)
+        .description(description)
+        .register(meterRegistry);
+  }
+
+  public Timer timer(String name, String description, String... tags) {
+    return Timer.builder(name)
+        .tags(tags)
+        .description(description)
+        .register(meterRegistry);
+  }
+
+  public <T> void gauge(String name, String description, T source, ToDoubleFunction<T> value, String... tags) {
+    Gauge.builder(name, source, value)
+        .tags(tags)
+        .description(description)
+        .register(meterRegistry);
+  }
+
+  private DistributionSummary summary(String name, String tagKey, String tagValue, String description) {
+    return summaries.computeIfAbsent(name + '|' + tagValue, key -> DistributionSummary.builder(name)
+        .tag(tagKey, tagValue)
+        .description(description)
+        .register(meterRegistry));
+  }
+}
@@ -31,6 +31,7 @@ public class Area {
   @LastModifiedBy
   private String updatedBy;
   private List<City> cities;
+  private List<County> counties;
   private List<PostalCode> postalCodes;
   private List<Country> countries;
   private List<PostalRange> postalRanges;
@@ -51,6 +52,24 @@ public class Area {
     private CodeName country;
   }
 
+  @Data
+  @EqualsAndHashCode(callSuper = true)
+  @JsonIgnoreProperties(ignoreUnknown = true)
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  public static class County extends GeoInclude {
+
+    @Id
+    private UUID id;
+    private UUID areaId;
+    /**
+     * 5-digit FIPS code, e.g. 48113.
+     */
+    private String code;
+    private String name;
+    private CodeName state;
+    private CodeName country;
+  }
+
   @Data
   @EqualsAndHashCode(callSuper = true)
   @JsonIgnoreProperties(ignoreUnknown = true)
@@ -1,15 +1,98 @@
 package com.trimble.area.geojson.model;
 
-import java.util.List;
+import java.io.IOException;
+import java.util.function.Supplier;
 
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.trimble.area.geojson.config.GeometryConfig;
+import com.trimble.area.geojson.geometry.GeoJsonGeometryReader;
+import com.trimble.area.geojson.geometry.GeoJsonGeometryWriter;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
 
+/**
+ * A GeoJSON geometry backed by the JTS geometry itself. It is written to JSON and BSON straight from the coordinate
+ * sequences (see {@link GeoJsonGeometryWriter}), so merged polygons are never rendered to a GeoJSON string and parsed
+ * back into boxed coordinate lists. Geometries loaded from a stored shape are decoded on first access.
+ */
 @Data
-@JsonIgnoreProperties(ignoreUnknown = true)
-@JsonInclude(JsonInclude.Include.NON_NULL)
+@NoArgsConstructor
+@JsonSerialize(using = AreaGeometry.Serializer.class)
+@JsonDeserialize(using = AreaGeometry.Deserializer.class)
 public class AreaGeometry {
-  private List<?> coordinates;
-  private String type;
-}
\ No newline at end of file
+
+  private Geometry geometry;
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private transient Supplier<Geometry> loader;
+
+  public AreaGeometry(Geometry geometry) {
+    this.geometry = geometry;
+  }
+
+  /**
+   * A geometry that is only loaded, e.g. decoded from its stored shape, when it is first read.
+   */
+  public static AreaGeometry lazy(Supplier<Geometry> loader) {
+    AreaGeometry areaGeometry = new AreaGeometry();
+    areaGeometry.loader = loader;
+    return areaGeometry;
+  }
+
+  public synchronized Geometry getGeometry() {
+    if (loader != null) {
+      geometry = loader.get();
+      loader = null;
+    }
+    return geometry;
+  }
+
+  public synchronized void setGeometry(Geometry geometry) {
+    this.geometry = geometry;
+    this.loader = null;
+  }
+
+  public String getType() {
+    Geometry current = getGeometry();
+    return current == null ? null : current.getGeometryType();
+  }
+
+  static class Serializer extends JsonSerializer<AreaGeometry> {
+
+    @Override
+    public void serialize(AreaGeometry value, JsonGenerator generator, SerializerProvider serializers)
+        throws IOException {
+      if (value.getGeometry() == null) {
+        generator.writeNull();
+        return;
+      }
+      GeoJsonGeometryWriter.write(value.getGeometry(), generator);
+    }
+  }
+
+  static class Deserializer extends JsonDeserializer<AreaGeometry> {
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryConfig().geometryFactory();
+
+    @Override
+    public AreaGeometry deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+      return new AreaGeometry(GeoJsonGeometryReader.read(parser, GEOMETRY_FACTORY));
+    }
+  }
+}
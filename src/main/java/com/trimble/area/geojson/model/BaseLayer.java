@@ -0,0 +1,39 @@
+package com.trimble.area.geojson.model;
+
+import java.time.Instant;
+import java.util.List;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Stored union of the boundaries of a country or of a 3-digit ZIP prefix. The version is raised on every rebuild and
+ * is part of the layer's boundary code, so merges, caches and stored results never mix two builds of a layer.
+ */
+@Document(collection = "geodata_base_layer")
+@Data
+public class BaseLayer {
+  /**
+   * {@code country:US} or {@code zip3:750}.
+   */
+  @Id
+  private String id;
+  private int version;
+  private BoundaryType memberType;
+  /**
+   * Sorted codes of the boundaries in the union.
+   */
+  private List<String> members;
+  private byte[] geometry;
+  private int precisionScale;
+  private Instant builtAt;
+
+  public String code() {
+    return code(id, version);
+  }
+
+  public static String code(String id, int version) {
+    return id + "@" + version;
+  }
+}
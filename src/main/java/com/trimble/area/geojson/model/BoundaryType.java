@@ -0,0 +1,18 @@
+package com.trimble.area.geojson.model;
+
+public enum BoundaryType {
+  STATE,
+  POSTAL,
+  /**
+   * US county by its 5-digit FIPS code.
+   */
+  COUNTY,
+  /**
+   * City as {@code NAME|STATE}, e.g. {@code DALLAS|TX}.
+   */
+  CITY,
+  /**
+   * Pre-unioned base layer of a country or a 3-digit ZIP prefix, see {@code BaseLayerService}.
+   */
+  LAYER
+}
@@ -1,26 +1,78 @@
 package com.trimble.area.geojson.model;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
 import org.springframework.data.mongodb.core.index.GeoSpatialIndexed;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+/**
+ * The merged polygon of an area. Each area has one document, whose id is the area id, replaced in place by every
+ * merge; see {@link com.trimble.area.geojson.service.GeoDataStore} for how the geometry is stored.
+ */
 @Document(collection = "geodata")
 @Data
 public class GeoData {
   @Id
   private UUID id;
+  @Indexed
   private UUID areaId;
+  /**
+   * Raised by every write of the area's polygon.
+   */
+  private Long version;
   @GeoSpatialIndexed(type = GeoSpatialIndexType.GEO_2DSPHERE)
   private AreaGeometry geometry;
+  /**
+   * Simplification tolerance of the stored GeoJSON {@code geometry} when the full geometry is kept as a shape; null
+   * when the stored GeoJSON is the full geometry.
+   */
+  @JsonIgnore
+  private Double indexTolerance;
+  /**
+   * The full geometry encoded by {@link com.trimble.area.geojson.geometry.ShapeCodec}, or the number of
+   * {@link GeoDataChunk}s holding it and the id they were written under.
+   */
+  @JsonIgnore
+  private byte[] shape;
+  @JsonIgnore
+  private Integer shapeChunks;
+  @JsonIgnore
+  private UUID shapeId;
   private AreaPoint centerPoint;
   private Instant createdAtDateTime;
   private String errorMessage;
   private Long processTime;
+  /**
+   * Milliseconds spent in each stage of the merge, in the order they ran; {@code processTime} is the total.
+   */
+  private Map<String, Long> processStages;
+  /**
+   * Boundary codes whose lookup failed, so the geometry was merged without them; null when every code was resolved.
+   */
+  private Map<BoundaryType, List<String>> missingCodes;
+  /**
+   * Content hash of the merge inputs the geometry was built from; polygons with the same hash have the same geometry.
+   */
+  @Indexed(sparse = true)
+  private String geometryHash;
+  /**
+   * Sorted ids of the quadtree cells inside the geometry and of those its boundary crosses; see
+   * {@link com.trimble.area.geojson.geometry.CellCovering}.
+   */
+  @Indexed
+  @JsonIgnore
+  private long[] interiorCells;
+  @Indexed
+  @JsonIgnore
+  private long[] boundaryCells;
 
 
 }
@@ -0,0 +1,24 @@
+package com.trimble.area.geojson.model;
+
+import java.util.UUID;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * One piece of a {@link GeoData} shape too large to store inline. A polygon's chunks share the {@code shapeId} of the
+ * write that stored them, so a reader of the previous version still finds its own chunks while the next is written.
+ */
+@Document(collection = "geodata_shape_chunks")
+@CompoundIndex(def = "{'geoDataId': 1, 'shapeId': 1, 'index': 1}")
+@Data
+public class GeoDataChunk {
+  @Id
+  private UUID id;
+  private UUID geoDataId;
+  private UUID shapeId;
+  private int index;
+  private byte[] data;
+}
@@ -0,0 +1,30 @@
+package com.trimble.area.geojson.model;
+
+import java.util.UUID;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * A topology-preserving simplification of a {@link GeoData} geometry, stored next to it for overview maps.
+ */
+@Document(collection = "geodata_levels")
+@CompoundIndex(def = "{'geoDataId': 1, 'tolerance': -1}")
+@Data
+public class GeoDataLevel {
+  @Id
+  private UUID id;
+  private UUID geoDataId;
+  @Indexed
+  private UUID areaId;
+  private double tolerance;
+  private AreaGeometry geometry;
+  private int vertexCount;
+  /**
+   * Version of the polygon the level was simplified from, set when the level is stored.
+   */
+  private Long version;
+}
@@ -0,0 +1,70 @@
+package com.trimble.area.geojson.model;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+/**
+ * Normalized boundary codes of an {@link Area}: sorted codes per boundary type that are unioned (include) and
+ * subtracted (exclude).
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MergeInputs {
+
+  private Map<BoundaryType, List<String>> include = new EnumMap<>(BoundaryType.class);
+  private Map<BoundaryType, List<String>> exclude = new EnumMap<>(BoundaryType.class);
+
+  public List<String> includes(BoundaryType type) {
+    return include.getOrDefault(type, List.of());
+  }
+
+  public List<String> excludes(BoundaryType type) {
+    return exclude.getOrDefault(type, List.of());
+  }
+
+  public void setIncludes(BoundaryType type, Set<String> codes) {
+    putSorted(include, type, codes);
+  }
+
+  public void setExcludes(BoundaryType type, Set<String> codes) {
+    putSorted(exclude, type, codes);
+  }
+
+  public int includeCount() {
+    return include.values().stream().mapToInt(List::size).sum();
+  }
+
+  /**
+   * Include codes of this input that are not included by {@code other}.
+   */
+  public Map<BoundaryType, List<String>> includesNotIn(MergeInputs other) {
+    Map<BoundaryType, List<String>> added = new EnumMap<>(BoundaryType.class);
+    include.forEach((type, codes) -> {
+      Set<String> otherCodes = new HashSet<>(other.includes(type));
+      List<String> missing = codes.stream().filter(code -> !otherCodes.contains(code)).toList();
+      if (!missing.isEmpty()) {
+        added.put(type, missing);
+      }
+    });
+    return added;
+  }
+
+  private static void putSorted(Map<BoundaryType, List<String>> map, BoundaryType type, Set<String> codes) {
+    if (codes.isEmpty()) {
+      map.remove(type);
+      return;
+    }
+    List<String> sorted = new ArrayList<>(codes);
+    sorted.sort(null);
+    map.put(type, sorted);
+  }
+}
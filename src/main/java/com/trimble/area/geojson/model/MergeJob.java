@@ -0,0 +1,28 @@
+package com.trimble.area.geojson.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MergeJob {
+  private UUID id;
+  private UUID areaId;
+  private MergePriority priority;
+  private volatile MergeJobStatus status;
+  private Instant submittedAt;
+  private volatile Instant startedAt;
+  private volatile Instant finishedAt;
+  private volatile UUID geoDataId;
+  private volatile String errorMessage;
+  @JsonIgnore
+  private Area area;
+  @JsonIgnore
+  private long sequence;
+}
@@ -0,0 +1,9 @@
+package com.trimble.area.geojson.model;
+
+public enum MergeJobStatus {
+  QUEUED,
+  RUNNING,
+  COMPLETED,
+  FAILED,
+  SUPERSEDED
+}
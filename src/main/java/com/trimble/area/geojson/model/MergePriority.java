@@ -0,0 +1,6 @@
+package com.trimble.area.geojson.model;
+
+public enum MergePriority {
+  INTERACTIVE,
+  BULK
+}
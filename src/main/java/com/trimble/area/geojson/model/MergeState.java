@@ -0,0 +1,26 @@
+package com.trimble.area.geojson.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Inputs of the last merge of an area together with the union of its includes as WKB, so the next merge can union
+ * only the boundaries that were added.
+ */
+@Document(collection = "geodata_merge_state")
+@Data
+public class MergeState {
+  @Id
+  private UUID areaId;
+  private MergeInputs inputs;
+  private byte[] includeUnion;
+  /**
+   * Scale of the precision model the union was snap-rounded to; states from other scales are rebuilt.
+   */
+  private int precisionScale;
+  private Instant updatedAt;
+}
@@ -0,0 +1,216 @@
+package com.trimble.area.geojson.postal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable set of five digit postal codes held as sorted, disjoint, non-adjacent intervals of ints. Ranges of any
+ * width cost two ints, and codes only become strings when {@link #toCodes()} is called for a vendor lookup.
+ */
+public final class PostalCodeSet {
+
+  public static final int WIDTH = 5;
+  public static final int MAX_CODE = 99999;
+  private static final PostalCodeSet EMPTY = new PostalCodeSet(new int[0], new int[0]);
+  private final int[] starts;
+  private final int[] ends;
+
+  private PostalCodeSet(int[] starts, int[] ends) {
+    this.starts = starts;
+    this.ends = ends;
+  }
+
+  public static PostalCodeSet empty() {
+    return EMPTY;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public boolean isEmpty() {
+    return starts.length == 0;
+  }
+
+  public long size() {
+    long size = 0;
+    for (int i = 0; i < starts.length; i++) {
+      size += ends[i] - starts[i] + 1L;
+    }
+    return size;
+  }
+
+  public boolean contains(int code) {
+    int index = Arrays.binarySearch(starts, code);
+    if (index >= 0) {
+      return true;
+    }
+    int interval = -index - 2;
+    return interval >= 0 && code <= ends[interval];
+  }
+
+  public PostalCodeSet union(PostalCodeSet other) {
+    Builder builder = new Builder();
+    builder.addAll(this);
+    builder.addAll(other);
+    return builder.build();
+  }
+
+  public PostalCodeSet difference(PostalCodeSet other) {
+    Builder builder = new Builder();
+    int j = 0;
+    for (int i = 0; i < starts.length; i++) {
+      int start = starts[i];
+      int end = ends[i];
+      while (j < other.starts.length && other.ends[j] < start) {
+        j++;
+      }
+      int k = j;
+      while (start <= end && k < other.starts.length && other.starts[k] <= end) {
+        if (other.starts[k] > start) {
+          builder.add(start, other.starts[k] - 1);
+        }
+        start = Math.max(start, other.ends[k] + 1);
+        k++;
+      }
+      if (start <= end) {
+        builder.add(start, end);
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * Codes of this set from {@code start} to {@code end}, both inclusive.
+   */
+  public PostalCodeSet subSet(int start, int end) {
+    Builder builder = new Builder();
+    // Intervals are disjoint and sorted, so their ends are sorted too
+    int first = Arrays.binarySearch(ends, start);
+    for (int i = first >= 0 ? first : -first - 1; i < starts.length && starts[i] <= end; i++) {
+      builder.add(Math.max(start, starts[i]), Math.min(end, ends[i]));
+    }
+    return builder.build();
+  }
+
+  /**
+   * Keeps only the codes set in {@code known}.
+   */
+  public PostalCodeSet retainAll(BitSet known) {
+    Builder builder = new Builder();
+    for (int i = 0; i < starts.length; i++) {
+      int code = known.nextSetBit(starts[i]);
+      while (code >= 0 && code <= ends[i]) {
+        int runEnd = Math.min(known.nextClearBit(code) - 1, ends[i]);
+        builder.add(code, runEnd);
+        code = known.nextSetBit(runEnd + 1);
+      }
+    }
+    return builder.build();
+  }
+
+  public void forEach(IntConsumer consumer) {
+    for (int i = 0; i < starts.length; i++) {
+      for (int code = starts[i]; code <= ends[i]; code++) {
+        consumer.accept(code);
+      }
+    }
+  }
+
+  public List<String> toCodes() {
+    List<String> codes = new ArrayList<>((int) Math.min(size(), Integer.MAX_VALUE));
+    forEach(code -> codes.add(format(code)));
+    return codes;
+  }
+
+  public static String format(int code) {
+    char[] digits = new char[WIDTH];
+    for (int i = WIDTH - 1; i >= 0; i--) {
+      digits[i] = (char) ('0' + code % 10);
+      code /= 10;
+    }
+    return new String(digits);
+  }
+
+  /**
+   * Parses a five digit postal code, returning -1 when the code is not one.
+   */
+  public static int parse(String code) {
+    if (code == null || code.length() != WIDTH) {
+      return -1;
+    }
+    int value = 0;
+    for (int i = 0; i < WIDTH; i++) {
+      char c = code.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      value = value * 10 + (c - '0');
+    }
+    return value;
+  }
+
+  public static final class Builder {
+
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    private int count;
+
+    private Builder() {
+    }
+
+    public Builder add(int code) {
+      return add(code, code);
+    }
+
+    public Builder add(int start, int end) {
+      if (start > end) {
+        return this;
+      }
+      if (count == starts.length) {
+        starts = Arrays.copyOf(starts, count * 2);
+        ends = Arrays.copyOf(ends, count * 2);
+      }
+      starts[count] = start;
+      ends[count] = end;
+      count++;
+      return this;
+    }
+
+    public Builder addAll(PostalCodeSet set) {
+      for (int i = 0; i < set.starts.length; i++) {
+        add(set.starts[i], set.ends[i]);
+      }
+      return this;
+    }
+
+    public PostalCodeSet build() {
+      if (count == 0) {
+        return EMPTY;
+      }
+      long[] intervals = new long[count];
+      for (int i = 0; i < count; i++) {
+        intervals[i] = ((long) starts[i] << 32) | (ends[i] & 0xffffffffL);
+      }
+      Arrays.sort(intervals);
+      int[] mergedStarts = new int[count];
+      int[] mergedEnds = new int[count];
+      int merged = 0;
+      for (long interval : intervals) {
+        int start = (int) (interval >>> 32);
+        int end = (int) interval;
+        if (merged > 0 && start <= mergedEnds[merged - 1] + 1) {
+          mergedEnds[merged - 1] = Math.max(mergedEnds[merged - 1], end);
+        } else {
+          mergedStarts[merged] = start;
+          mergedEnds[merged] = end;
+          merged++;
+        }
+      }
+      return new PostalCodeSet(Arrays.copyOf(mergedStarts, merged), Arrays.copyOf(mergedEnds, merged));
+    }
+  }
+}
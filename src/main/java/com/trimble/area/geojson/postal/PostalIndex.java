@@ -0,0 +1,83 @@
+package com.trimble.area.geojson.postal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+
+import com.trimble.area.geojson.boundary.LocalBoundaryProvider;
+import com.trimble.area.geojson.boundary.MappedBoundaryStore;
+import com.trimble.area.geojson.model.BoundaryType;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+/**
+ * Index of the US ZIP codes that exist, built from an optional code list (one code per line) and the codes of the
+ * local postal boundary store. Postal ranges are intersected with it before any lookup; while the index is empty it
+ * lets every code through.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostalIndex {
+
+  private final ResourceLoader resourceLoader;
+  private final LocalBoundaryProvider localBoundaryProvider;
+  private final BitSet known = new BitSet(PostalCodeSet.MAX_CODE + 1);
+  @Value("${geo.postal.index:}")
+  private String indexLocation;
+
+  @PostConstruct
+  public void load() {
+    if (!indexLocation.isBlank()) {
+      Resource resource = resourceLoader.getResource(indexLocation);
+      try (var reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          int code = PostalCodeSet.parse(line.trim());
+          if (code >= 0) {
+            known.set(code);
+          }
+        }
+      } catch (IOException ex) {
+        throw new UncheckedIOException("Error while reading postal index " + indexLocation, ex);
+      }
+    }
+    MappedBoundaryStore store = localBoundaryProvider.getStore(BoundaryType.POSTAL);
+    if (store != null) {
+      store.codes().forEach(code -> {
+        int value = PostalCodeSet.parse(code);
+        if (value >= 0) {
+          known.set(value);
+        }
+      });
+    }
+    log.info("Postal index - {} known postal codes", known.cardinality());
+  }
+
+  public boolean isEmpty() {
+    return known.isEmpty();
+  }
+
+  public boolean contains(int code) {
+    return known.isEmpty() || known.get(code);
+  }
+
+  /**
+   * Known codes from {@code start} to {@code end}, both inclusive; empty while the index is empty.
+   */
+  public PostalCodeSet knownIn(int start, int end) {
+    return known.isEmpty() ? PostalCodeSet.empty() : PostalCodeSet.builder().add(start, end).build().retainAll(known);
+  }
+
+  public PostalCodeSet retainKnown(PostalCodeSet codes) {
+    return known.isEmpty() ? codes : codes.retainAll(known);
+  }
+}
@@ -0,0 +1,11 @@
+package com.trimble.area.geojson.repository;
+
+import java.util.UUID;
+
+import com.trimble.area.geojson.model.GeoDataLevel;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface GeoDataLevelRepository extends MongoRepository<GeoDataLevel, UUID> {
+
+  void deleteByAreaId(UUID id);
+}
@@ -0,0 +1,9 @@
+package com.trimble.area.geojson.repository;
+
+import java.util.UUID;
+
+import com.trimble.area.geojson.model.MergeState;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface MergeStateRepository extends MongoRepository<MergeState, UUID> {
+}
@@ -0,0 +1,234 @@
+package com.trimble.area.geojson.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.trimble.area.geojson.boundary.BaseLayerProvider;
+import com.trimble.area.geojson.config.GeometryConfig;
+import com.trimble.area.geojson.model.BaseLayer;
+import com.trimble.area.geojson.model.BoundaryType;
+import com.trimble.area.geojson.postal.PostalCodeSet;
+import com.trimble.area.geojson.postal.PostalIndex;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKBReader;
+import org.locationtech.jts.io.WKBWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+/**
+ * Background job that keeps the base layers up to date: one union per configured country and, once the postal index
+ * knows the valid ZIP codes, one per 3-digit ZIP prefix. A layer is rebuilt under a new version when its members
+ * change, when it was built at another precision or when it is older than {@code geo.layers.max-age}. Every run
+ * publishes the stored layers to the {@link BaseLayerProvider}, from which the {@link MergePlanner} substitutes them
+ * for the boundaries they cover.
+ */
+@Slf4j
+@Service
+public class BaseLayerService {
+
+  private static final String COUNTRY = "country:";
+  private static final String ZIP3 = "zip3:";
+  private static final String[] ZIP3_IDS = IntStream.range(0, 1000)
+      .mapToObj(prefix -> ZIP3 + String.format("%03d", prefix))
+      .toArray(String[]::new);
+
+  private final BoundaryService boundaryService;
+  private final BaseLayerProvider baseLayerProvider;
+  private final PostalIndex postalIndex;
+  private final MongoTemplate mongoTemplate;
+  private final GeometryFactory geometryFactory;
+  private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "base-layers");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private final boolean enabled;
+  private final List<String> countries;
+  private final boolean zip3;
+  private final Duration refresh;
+  private final Duration maxAge;
+
+  public BaseLayerService(BoundaryService boundaryService, BaseLayerProvider baseLayerProvider,
+                          PostalIndex postalIndex, MongoTemplate mongoTemplate, GeometryFactory geometryFactory,
+                          @Value("${geo.layers.enabled:true}") boolean enabled,
+                          @Value("${geo.layers.countries:US,CA}") List<String> countries,
+                          @Value("${geo.layers.zip3:true}") boolean zip3,
+                          @Value("${geo.layers.refresh:1h}") Duration refresh,
+                          @Value("${geo.layers.max-age:7d}") Duration maxAge) {
+    this.boundaryService = boundaryService;
+    this.baseLayerProvider = baseLayerProvider;
+    this.postalIndex = postalIndex;
+    this.mongoTemplate = mongoTemplate;
+    this.geometryFactory = geometryFactory;
+    this.enabled = enabled;
+    this.countries = countries;
+    this.zip3 = zip3;
+    this.refresh = refresh;
+    this.maxAge = maxAge;
+  }
+
+  @PostConstruct
+  public void start() {
+    if (enabled) {
+      executor.scheduleWithFixedDelay(this::refresh, 0, refresh.toMillis(), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  @PreDestroy
+  public void stop() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Publishes the stored layers, rebuilds the ones that are missing or stale and publishes again.
+   */
+  public void refresh() {
+    try {
+      Map<String, BaseLayer> stored = mongoTemplate.findAll(BaseLayer.class).stream()
+          .collect(Collectors.toMap(BaseLayer::getId, Function.identity()));
+      publish(stored.values());
+      int built = 0;
+      for (Map.Entry<String, List<String>> definition : definitions().entrySet()) {
+        if (Thread.currentThread().isInterrupted()) {
+          return;
+        }
+        String id = definition.getKey();
+        BaseLayer previous = stored.get(id);
+        if (isCurrent(previous, definition.getValue())) {
+          continue;
+        }
+        BaseLayer layer = build(id, definition.getValue(), previous);
+        if (layer != null && store(previous, layer)) {
+          stored.put(id, layer);
+          built++;
+        }
+      }
+      if (built > 0) {
+        publish(stored.values());
+      }
+      log.info("Base layers - {} layers published, {} rebuilt", stored.size(), built);
+    } catch (Exception ex) {
+      log.error("Base layers - Error while refreshing base layers {}", ex.getMessage(), ex);
+    }
+  }
+
+  /**
+   * Members of every configured layer by layer id.
+   */
+  private Map<String, List<String>> definitions() {
+    Map<String, List<String>> definitions = new LinkedHashMap<>();
+    for (String country : countries) {
+      String code = country.trim().toUpperCase(Locale.ROOT);
+      Set<String> states = MergePlanner.countryStates(code);
+      if (states.isEmpty()) {
+        log.warn("Base layers - No states known for country {}", code);
+      } else {
+        definitions.put(countryId(code), states.stream().sorted().toList());
+      }
+    }
+    if (zip3 && postalIndex.isEmpty()) {
+      log.info("Base layers - The postal index is empty, no ZIP3 layers are built");
+    } else if (zip3) {
+      for (int prefix = 0; prefix < 1000; prefix++) {
+        PostalCodeSet codes = postalIndex.knownIn(prefix * 100, prefix * 100 + 99);
+        if (!codes.isEmpty()) {
+          definitions.put(zip3Id(prefix), codes.toCodes());
+        }
+      }
+    }
+    return definitions;
+  }
+
+  private boolean isCurrent(BaseLayer layer, List<String> members) {
+    return layer != null
+        && layer.getPrecisionScale() == GeometryConfig.PRECISION_SCALE
+        && members.equals(layer.getMembers())
+        && layer.getBuiltAt() != null && layer.getBuiltAt().isAfter(Instant.now().minus(maxAge));
+  }
+
+  /**
+   * Unions the members of the layer, or returns null when some of them could not be resolved.
+   */
+  private BaseLayer build(String id, List<String> members, BaseLayer previous) {
+    BoundaryType memberType = id.startsWith(COUNTRY) ? BoundaryType.STATE : BoundaryType.POSTAL;
+    MissingCodes missing = new MissingCodes();
+    Geometry union = boundaryService.unionBoundaries(Map.of(memberType, members), SubUnionCache.disabled(), missing);
+    if (!missing.isEmpty()) {
+      log.warn("Base layers - Not building {}, boundaries missing {}", id, missing.toMap());
+      return null;
+    }
+    BaseLayer layer = new BaseLayer();
+    layer.setId(id);
+    layer.setVersion(previous == null ? 1 : previous.getVersion() + 1);
+    layer.setMemberType(memberType);
+    layer.setMembers(members);
+    layer.setGeometry(new WKBWriter(2).write(union));
+    layer.setPrecisionScale(GeometryConfig.PRECISION_SCALE);
+    layer.setBuiltAt(Instant.now());
+    log.info("Base layers - Built {} version {} from {} boundaries", id, layer.getVersion(), members.size());
+    return layer;
+  }
+
+  /**
+   * Writes the layer unless another instance replaced the previous version first.
+   */
+  private boolean store(BaseLayer previous, BaseLayer layer) {
+    if (previous == null) {
+      try {
+        mongoTemplate.insert(layer);
+        return true;
+      } catch (DuplicateKeyException ex) {
+        return false;
+      }
+    }
+    Query query = Query.query(Criteria.where("_id").is(layer.getId()).and("version").is(previous.getVersion()));
+    return mongoTemplate.findAndReplace(query, layer) != null;
+  }
+
+  private void publish(Iterable<BaseLayer> stored) {
+    List<BaseLayerProvider.Layer> layers = new ArrayList<>();
+    WKBReader reader = new WKBReader(geometryFactory);
+    for (BaseLayer layer : stored) {
+      // Layers of another precision are rebuilt before they are used
+      if (layer.getPrecisionScale() != GeometryConfig.PRECISION_SCALE || layer.getGeometry() == null) {
+        continue;
+      }
+      try {
+        layers.add(new BaseLayerProvider.Layer(layer.getId(), layer.code(), layer.getMembers(),
+            reader.read(layer.getGeometry())));
+      } catch (ParseException ex) {
+        log.warn("Base layers - Unreadable layer {} : {}", layer.getId(), ex.getMessage());
+      }
+    }
+    baseLayerProvider.publish(layers);
+  }
+
+  static String countryId(String country) {
+    return COUNTRY + country;
+  }
+
+  static String zip3Id(int prefix) {
+    return ZIP3_IDS[prefix];
+  }
+}
@@ -0,0 +1,108 @@
+package com.trimble.area.geojson.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import com.trimble.area.geojson.boundary.BoundaryProvider;
+import com.trimble.area.geojson.cache.BoundaryCache;
+import com.trimble.area.geojson.geometry.UnionEngine;
+import com.trimble.area.geojson.metrics.GeoMetrics;
+import com.trimble.area.geojson.model.BoundaryType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.stereotype.Service;
+
+/**
+ * Resolves boundary codes to parsed, valid geometries. Cached boundaries are served without a lookup or a parse; the
+ * codes that miss the cache go through the {@link BoundaryProvider}s in order, local stores first and PC*MILER last.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BoundaryService {
+
+  private final List<BoundaryProvider> boundaryProviders;
+  private final BoundaryCache boundaryCache;
+  private final UnionEngine unionEngine;
+  private final GeoMetrics geoMetrics;
+
+  public Map<String, Geometry> getStates(Collection<String> states) {
+    return getBoundaries(BoundaryType.STATE, states);
+  }
+
+  public Map<String, Geometry> getPostalCodes(Collection<String> postalCodes) {
+    return getBoundaries(BoundaryType.POSTAL, postalCodes);
+  }
+
+  /**
+   * Unions the boundaries of the given codes, one sub-union per boundary type. Codes whose lookup failed are left out
+   * of the union and added to {@code missing}.
+   */
+  public Geometry unionBoundaries(Map<BoundaryType, List<String>> codes, SubUnionCache subUnions,
+                                  MissingCodes missing) {
+    log.info("Polygon - Union Geometries");
+    List<Geometry> partials = new ArrayList<>();
+    codes.forEach((type, typeCodes) -> {
+      Map<String, Geometry> boundaries = new HashMap<>();
+      Set<String> failed = resolve(type, typeCodes, boundaries);
+      missing.addAll(type, failed);
+      // Boundaries are fixed when they are parsed, so the union needs no buffer(0) or repair pass
+      Supplier<Geometry> union = () -> unionEngine.union(new ArrayList<>(boundaries.values()), true);
+      // A union without the failed codes is not shared with the other merges of the window
+      partials.add(failed.isEmpty() ? subUnions.union(type, typeCodes, union) : union.get());
+    });
+    return unionEngine.union(partials, true);
+  }
+
+  public Map<String, Geometry> getBoundaries(BoundaryType type, Collection<String> codes) {
+    Map<String, Geometry> boundaries = new HashMap<>();
+    resolve(type, codes, boundaries);
+    return boundaries;
+  }
+
+  /**
+   * Puts the non-empty boundaries of the codes into {@code boundaries} and returns the codes no provider could
+   * resolve. Those are not cached, so the next lookup tries them again.
+   */
+  private Set<String> resolve(BoundaryType type, Collection<String> codes, Map<String, Geometry> boundaries) {
+    Set<String> missing = new LinkedHashSet<>();
+    for (String code : codes) {
+      Geometry geometry = boundaryCache.get(type, code);
+      if (geometry == null) {
+        missing.add(code);
+      } else if (!geometry.isEmpty()) {
+        boundaries.put(code, geometry);
+      }
+    }
+    if (!missing.isEmpty()) {
+      log.info("Polygon - Resolving {} {} boundaries, {} served from cache", missing.size(), type, boundaries.size());
+    }
+    for (BoundaryProvider provider : boundaryProviders) {
+      if (missing.isEmpty()) {
+        break;
+      }
+      provider.getBoundaries(type, new ArrayList<>(missing)).forEach((code, geometry) -> {
+        boundaryCache.put(type, code, geometry);
+        if (!geometry.isEmpty()) {
+          boundaries.put(code, geometry);
+        }
+        missing.remove(code);
+      });
+    }
+    if (!missing.isEmpty()) {
+      log.warn("Polygon - {} {} boundaries could not be resolved", missing.size(), type);
+    }
+    if (geoMetrics.isEnabled()) {
+      geoMetrics.recordInputs(type.name(), boundaries.size(),
+          boundaries.values().stream().mapToLong(Geometry::getNumPoints).sum());
+    }
+    return missing;
+  }
+}
@@ -0,0 +1,265 @@
+package com.trimble.area.geojson.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.trimble.area.geojson.model.Area;
+import com.trimble.area.geojson.model.BoundaryType;
+import com.trimble.area.geojson.model.GeoData;
+import com.trimble.area.geojson.model.MergeInputs;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Merges a stream of areas read as NDJSON. Areas are processed in windows: all boundaries referenced by a window are
+ * resolved once up front, unions of code lists shared by several areas are computed once, and results are written
+ * with one bulk operation per batch before they are streamed back, one JSON line per area.
+ */
+@Slf4j
+@Service
+public class BulkMergeService implements DisposableBean {
+
+  private final GeoJsonService geoJsonService;
+  private final MergePlanner mergePlanner;
+  private final BoundaryService boundaryService;
+  private final IncrementalMergeService incrementalMergeService;
+  private final GeometryLevelService geometryLevelService;
+  private final GeoDataStore geoDataStore;
+  private final ObjectMapper objectMapper;
+  private final ExecutorService executor;
+  private final int windowSize;
+  private final int writeBatchSize;
+
+  public BulkMergeService(GeoJsonService geoJsonService, MergePlanner mergePlanner, BoundaryService boundaryService,
+                          IncrementalMergeService incrementalMergeService,
+                          GeometryLevelService geometryLevelService, GeoDataStore geoDataStore,
+                          ObjectMapper objectMapper,
+                          @Value("${geo.merge.bulk.parallelism:0}") int parallelism,
+                          @Value("${geo.merge.bulk.window-size:500}") int windowSize,
+                          @Value("${geo.merge.bulk.write-batch-size:50}") int writeBatchSize) {
+    this.geoJsonService = geoJsonService;
+    this.mergePlanner = mergePlanner;
+    this.boundaryService = boundaryService;
+    this.incrementalMergeService = incrementalMergeService;
+    this.geometryLevelService = geometryLevelService;
+    this.geoDataStore = geoDataStore;
+    this.objectMapper = objectMapper;
+    this.executor = Executors.newFixedThreadPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    this.windowSize = windowSize;
+    this.writeBatchSize = writeBatchSize;
+  }
+
+  /**
+   * Merges one area per line. A line that is not a valid area is answered with an error line and the stream goes on.
+   */
+  public void merge(InputStream in, OutputStream out) throws IOException {
+    ObjectReader areaReader = objectMapper.readerFor(Area.class);
+    BufferedReader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    List<Area> window = new ArrayList<>(windowSize);
+    String line;
+    int lineNumber = 0;
+    while ((line = lines.readLine()) != null) {
+      lineNumber++;
+      if (line.isBlank()) {
+        continue;
+      }
+      Area area;
+      try {
+        area = areaReader.readValue(line);
+      } catch (JsonProcessingException ex) {
+        log.warn("Polygon - Skipping invalid bulk line {} : {}", lineNumber, ex.getOriginalMessage());
+        writeLine(errorLine(null, "Line " + lineNumber + " is not a valid area: " + ex.getOriginalMessage()), out);
+        continue;
+      }
+      if (area == null) {
+        writeLine(errorLine(null, "Line " + lineNumber + " is not a valid area"), out);
+        continue;
+      }
+      window.add(area);
+      if (window.size() == windowSize) {
+        mergeWindow(window, out);
+        window.clear();
+      }
+    }
+    if (!window.isEmpty()) {
+      mergeWindow(window, out);
+    }
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdownNow();
+  }
+
+  private void mergeWindow(List<Area> lines, OutputStream out) throws IOException {
+    List<Area> window = new ArrayList<>(lines.size());
+    List<MergeInputs> inputs = new ArrayList<>(lines.size());
+    for (Area area : lastLinePerArea(lines, out)) {
+      try {
+        inputs.add(mergePlanner.plan(area));
+        window.add(area);
+      } catch (RuntimeException ex) {
+        log.warn("Polygon - Error while planning the merge of {} : {}", area.getId(), ex.getMessage(), ex);
+        writeLine(errorLine(area.getId(), "Error while planning the merge " + ex.getMessage()), out);
+      }
+    }
+    if (window.isEmpty()) {
+      return;
+    }
+    prefetch(inputs);
+    SubUnionCache subUnions = SubUnionCache.shared(inputs);
+
+    ExecutorCompletionService<MergeResult> completionService = new ExecutorCompletionService<>(executor);
+    for (int i = 0; i < window.size(); i++) {
+      Area area = window.get(i);
+      MergeInputs areaInputs = inputs.get(i);
+      completionService.submit(() -> geoJsonService.buildPolygon(area, areaInputs, subUnions));
+    }
+    List<MergeResult> batch = new ArrayList<>(writeBatchSize);
+    for (int i = 0; i < window.size(); i++) {
+      try {
+        batch.add(completionService.take().get());
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while merging areas", ex);
+      } catch (ExecutionException ex) {
+        throw new IllegalStateException("Error while merging areas " + ex.getCause().getMessage(), ex.getCause());
+      }
+      if (batch.size() == writeBatchSize) {
+        writeBatch(batch, out);
+        batch.clear();
+      }
+    }
+    if (!batch.isEmpty()) {
+      writeBatch(batch, out);
+    }
+  }
+
+  /**
+   * Keeps the last line of each area in the window. The merges of a window run at once and are written in completion
+   * order, so an earlier line of an area could otherwise be saved over a later one; earlier lines are answered as
+   * superseded.
+   */
+  private List<Area> lastLinePerArea(List<Area> lines, OutputStream out) throws IOException {
+    Map<UUID, Area> lastLines = new HashMap<>();
+    lines.stream().filter(area -> area.getId() != null).forEach(area -> lastLines.put(area.getId(), area));
+    if (lastLines.size() == lines.stream().filter(area -> area.getId() != null).count()) {
+      return lines;
+    }
+    List<Area> window = new ArrayList<>(lastLines.size());
+    for (Area area : lines) {
+      if (area.getId() == null || lastLines.get(area.getId()) == area) {
+        window.add(area);
+      } else {
+        writeLine(errorLine(area.getId(), "Superseded by a later line of the same area"), out);
+      }
+    }
+    return window;
+  }
+
+  private void prefetch(List<MergeInputs> inputs) {
+    Map<BoundaryType, Set<String>> codes = new EnumMap<>(BoundaryType.class);
+    for (MergeInputs input : inputs) {
+      input.getInclude().forEach((type, typeCodes) -> codes.computeIfAbsent(type, k -> new HashSet<>()).addAll(typeCodes));
+      input.getExclude().forEach((type, typeCodes) -> codes.computeIfAbsent(type, k -> new HashSet<>()).addAll(typeCodes));
+    }
+    codes.forEach(boundaryService::getBoundaries);
+  }
+
+  /**
+   * Persists the batch, then updates merge states, levels and the in-memory views of the areas that were saved. Areas
+   * that could not be saved keep their previous state and are answered with the error.
+   */
+  private void writeBatch(List<MergeResult> batch, OutputStream out) throws IOException {
+    Map<MergeResult, String> failures = persist(batch);
+    List<MergeResult> saved = batch.stream().filter(result -> !failures.containsKey(result)).toList();
+    incrementalMergeService.saveStates(saved);
+    geometryLevelService.replace(saved.stream().map(result -> result.area().getId()).filter(Objects::nonNull).toList(),
+        saved.stream().flatMap(result -> result.levels().stream()).toList(),
+        saved.stream().map(MergeResult::geoData).filter(Objects::nonNull).toList());
+    for (MergeResult result : batch) {
+      GeoData geoData = result.geoData();
+      if (failures.containsKey(result)) {
+        writeLine(geoData != null ? geoData : errorLine(result.area().getId(), failures.get(result)), out);
+        continue;
+      }
+      geoJsonService.publishChange(result.area().getId(), geoData);
+      if (geoData == null) {
+        // Nothing to include: the area's polygon was removed
+        geoData = new GeoData();
+        geoData.setAreaId(result.area().getId());
+      }
+      writeLine(geoData, out);
+    }
+    out.flush();
+  }
+
+  /**
+   * Saves the batch with one bulk write, or area by area when that fails. Returns the error of each area that could
+   * not be saved; a polygon that failed to save carries it as its error message.
+   */
+  private Map<MergeResult, String> persist(List<MergeResult> batch) {
+    Map<MergeResult, String> failures = new IdentityHashMap<>();
+    List<UUID> areaIds = batch.stream().map(result -> result.area().getId()).filter(Objects::nonNull).toList();
+    List<GeoData> polygons = batch.stream().map(MergeResult::geoData).filter(Objects::nonNull).toList();
+    try {
+      log.info("Polygon - Saving {} Geometries", polygons.size());
+      geoDataStore.saveAll(areaIds, polygons);
+    } catch (Exception ex) {
+      log.error("Polygon - Error while bulk saving polygons {}, saving one by one", ex.getMessage(), ex);
+      for (MergeResult result : batch) {
+        if (result.geoData() != null) {
+          if (geoJsonService.savePolygon(result.geoData()) == null) {
+            String error = Objects.requireNonNullElse(result.geoData().getErrorMessage(),
+                "Error while saving the polygon");
+            result.geoData().setErrorMessage(error);
+            failures.put(result, error);
+          }
+        } else if (result.area().getId() != null) {
+          try {
+            geoDataStore.deleteByAreaId(result.area().getId());
+          } catch (Exception deleteEx) {
+            log.error("Polygon - Error while removing polygon {}", deleteEx.getMessage(), deleteEx);
+            failures.put(result, "Error while removing the polygon " + deleteEx.getMessage());
+          }
+        }
+      }
+    }
+    return failures;
+  }
+
+  private static GeoData errorLine(UUID areaId, String errorMessage) {
+    GeoData geoData = new GeoData();
+    geoData.setAreaId(areaId);
+    geoData.setErrorMessage(errorMessage);
+    return geoData;
+  }
+
+  private void writeLine(GeoData geoData, OutputStream out) throws IOException {
+    out.write(objectMapper.writeValueAsBytes(geoData));
+    out.write('\n');
+  }
+}
@@ -0,0 +1,357 @@
+package com.trimble.area.geojson.service;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteManyModel;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import com.trimble.area.geojson.config.GeometryConfig;
+import com.trimble.area.geojson.geometry.GeoJsonGeometryWriter;
+import com.trimble.area.geojson.geometry.ShapeCodec;
+import com.trimble.area.geojson.metrics.GeoMetrics;
+import com.trimble.area.geojson.model.AreaGeometry;
+import com.trimble.area.geojson.model.GeoData;
+import com.trimble.area.geojson.model.GeoDataChunk;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonBinaryWriter;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.io.BasicOutputBuffer;
+import org.bson.types.Binary;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.simplify.TopologyPreservingSimplifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterConvertCallback;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Reads and writes merged polygons. Each area has one document, keyed by the area id and replaced by a single atomic
+ * upsert that raises its {@code version}, so readers see either the previous polygon or the new one and never none.
+ * <p>
+ * A geometry with more than {@code geo.persist.index-max-vertices} vertices is stored twice. The full geometry is
+ * stored as a {@link ShapeCodec} shape, inline or split into {@link GeoDataChunk}s when it exceeds
+ * {@code geo.persist.chunk-size}. A copy simplified by {@code geo.persist.index-tolerance} is stored as the GeoJSON
+ * {@code geometry} that the 2dsphere index and spatial queries use. Loaded polygons only decode their shape when the
+ * geometry is first read; queries that need the full geometry must include {@link #GEOMETRY_FIELDS}.
+ */
+@Slf4j
+@Service
+public class GeoDataStore implements AfterConvertCallback<GeoData> {
+
+  public static final String[] GEOMETRY_FIELDS = {"geometry", "indexTolerance", "shape", "shapeChunks", "shapeId"};
+  private static final int MAX_CHUNKED_READS = 3;
+
+  private final MongoTemplate mongoTemplate;
+  private final GeometryFactory geometryFactory;
+  private final GeoMetrics geoMetrics;
+  private final int indexMaxVertices;
+  private final double indexTolerance;
+  private final int chunkSize;
+
+  public GeoDataStore(MongoTemplate mongoTemplate, GeometryFactory geometryFactory, GeoMetrics geoMetrics,
+                      @Value("${geo.persist.index-max-vertices:5000}") int indexMaxVertices,
+                      @Value("${geo.persist.index-tolerance:0.002}") double indexTolerance,
+                      @Value("${geo.persist.chunk-size:1048576}") int chunkSize) {
+    this.mongoTemplate = mongoTemplate;
+    this.geometryFactory = geometryFactory;
+    this.geoMetrics = geoMetrics;
+    this.indexMaxVertices = indexMaxVertices;
+    this.indexTolerance = indexTolerance;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Largest distance in degrees between a stored GeoJSON {@code geometry} and the full geometry it was simplified from.
+   */
+  public double getIndexTolerance() {
+    return indexTolerance;
+  }
+
+  /**
+   * Writes the polygon and returns it with its new version. The first write of an area also removes the polygons
+   * stored for it under other ids, from before one document per area was kept.
+   */
+  public GeoData save(GeoData geoData) {
+    Encoded encoded = encode(geoData);
+    insertChunks(encoded.chunks());
+    long startTime = System.nanoTime();
+    Document previous = collection().findOneAndUpdate(Filters.eq("_id", geoData.getId()), encoded.update(),
+        new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.BEFORE)
+            .projection(Projections.include("version", "shapeId")));
+    geoMetrics.recordStage("persist", System.nanoTime() - startTime);
+    long previousVersion = previous != null && previous.get("version") instanceof Number version
+        ? version.longValue() : 0;
+    geoData.setVersion(previousVersion + 1);
+    if (previous == null && geoData.getAreaId() != null) {
+      collection().deleteMany(Filters.and(Filters.eq("areaId", geoData.getAreaId()),
+          Filters.ne("_id", geoData.getId())));
+    }
+    Object previousShapeId = previous == null ? null : previous.get("shapeId");
+    if (previousShapeId != null && !previousShapeId.equals(encoded.shapeId())) {
+      chunks().deleteMany(Filters.and(Filters.eq("geoDataId", geoData.getId()),
+          Filters.eq("shapeId", previousShapeId)));
+    }
+    return geoData;
+  }
+
+  /**
+   * Writes the polygons of a batch of areas in one ordered bulk write; areas without a polygon lose the stored one.
+   * The raised versions are read back in one query and set on the polygons.
+   */
+  public void saveAll(Collection<UUID> areaIds, List<GeoData> polygons) {
+    List<WriteModel<Document>> writes = new ArrayList<>();
+    List<GeoDataChunk> newChunks = new ArrayList<>();
+    Set<UUID> ids = new HashSet<>(areaIds);
+    List<UUID> polygonIds = new ArrayList<>();
+    List<UUID> shapeIds = new ArrayList<>();
+    for (GeoData polygon : polygons) {
+      Encoded encoded = encode(polygon);
+      newChunks.addAll(encoded.chunks());
+      if (encoded.shapeId() != null) {
+        shapeIds.add(encoded.shapeId());
+      }
+      ids.add(polygon.getId());
+      polygonIds.add(polygon.getId());
+      writes.add(new UpdateOneModel<>(Filters.eq("_id", polygon.getId()), encoded.update(),
+          new UpdateOptions().upsert(true)));
+    }
+    // Areas left without a polygon, and polygons stored under other ids before one document per area was kept
+    writes.add(new DeleteManyModel<>(Filters.and(Filters.in("areaId", areaIds), Filters.nin("_id", polygonIds))));
+    insertChunks(newChunks);
+    long startTime = System.nanoTime();
+    collection().bulkWrite(writes, new BulkWriteOptions().ordered(true));
+    geoMetrics.recordStage("persist-bulk", System.nanoTime() - startTime);
+    chunks().deleteMany(Filters.and(Filters.in("geoDataId", ids), Filters.nin("shapeId", shapeIds)));
+    readVersions(polygons);
+  }
+
+  private void readVersions(List<GeoData> polygons) {
+    if (polygons.isEmpty()) {
+      return;
+    }
+    Map<Object, Long> versions = new HashMap<>();
+    collection().find(Filters.in("_id", polygons.stream().map(GeoData::getId).toList()))
+        .projection(Projections.include("version"))
+        .forEach(polygon -> versions.put(polygon.get("_id"),
+            polygon.get("version") instanceof Number version ? version.longValue() : 0L));
+    polygons.forEach(polygon -> polygon.setVersion(versions.get(polygon.getId())));
+  }
+
+  public void deleteByAreaId(UUID areaId) {
+    collection().deleteMany(Filters.eq("areaId", areaId));
+    chunks().deleteMany(Filters.eq("geoDataId", areaId));
+  }
+
+  public Long getVersion(UUID id) {
+    Document polygon = collection().find(Filters.eq("_id", id)).projection(Projections.include("version")).first();
+    if (polygon == null) {
+      return null;
+    }
+    // Polygons from before versions were kept are never updated in place
+    return polygon.get("version") instanceof Number version ? version.longValue() : 0L;
+  }
+
+  /**
+   * The full geometry of a polygon with its version, both read in one query, or null if the polygon does not exist or
+   * has none. Geometries stored in full are returned as stored and shapes as their bytes, neither decoded.
+   * <p>
+   * Missing chunks mean the polygon was replaced after it was read, so it is read again with its new version. Chunks
+   * still missing after {@value #MAX_CHUNKED_READS} reads, e.g. after a partial write, are answered with 503.
+   */
+  public StoredGeometry getStoredGeometry(UUID id) {
+    for (int read = 1; read <= MAX_CHUNKED_READS; read++) {
+      RawBsonDocument polygon = mongoTemplate.getCollection(mongoTemplate.getCollectionName(GeoData.class))
+          .withDocumentClass(RawBsonDocument.class)
+          .find(Filters.eq("_id", id))
+          .projection(Projections.fields(Projections.include("version"), Projections.include(GEOMETRY_FIELDS)))
+          .first();
+      if (polygon == null) {
+        return null;
+      }
+      BsonValue storedVersion = polygon.get("version");
+      long version = storedVersion != null && storedVersion.isNumber() ? storedVersion.asNumber().longValue() : 0;
+      if (polygon.containsKey("shape")) {
+        return new StoredGeometry(version, null, polygon.getBinary("shape").getData());
+      }
+      if (!polygon.containsKey("shapeChunks")) {
+        BsonValue geometry = polygon.get("geometry");
+        return geometry instanceof RawBsonDocument rawGeometry ? new StoredGeometry(version, rawGeometry) : null;
+      }
+      byte[] shape = loadShape(id, polygon.getBinary("shapeId").asUuid(), polygon.getInt32("shapeChunks").getValue());
+      if (shape != null) {
+        return new StoredGeometry(version, null, shape);
+      }
+    }
+    log.error("Polygon - Shape chunks of {} still missing after {} reads", id, MAX_CHUNKED_READS);
+    throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "The geometry of " + id + " is not readable");
+  }
+
+  /**
+   * Swaps the stored GeoJSON copy of a loaded polygon for its full geometry, decoded on first access.
+   */
+  @Override
+  public GeoData onAfterConvert(GeoData geoData, Document document, String collection) {
+    byte[] shape = geoData.getShape();
+    Integer chunkCount = geoData.getShapeChunks();
+    UUID shapeId = geoData.getShapeId();
+    UUID id = geoData.getId();
+    if (shape != null) {
+      geoData.setShape(null);
+      geoData.setGeometry(AreaGeometry.lazy(() -> decode(shape)));
+    } else if (chunkCount != null && shapeId != null) {
+      geoData.setGeometry(AreaGeometry.lazy(() -> loadChunked(id, shapeId, chunkCount)));
+    }
+    return geoData;
+  }
+
+  private Encoded encode(GeoData geoData) {
+    AreaGeometry areaGeometry = geoData.getGeometry();
+    Geometry geometry = areaGeometry == null ? null : areaGeometry.getGeometry();
+    Document fields = new Document();
+    // The geometry is written below, either in full or as the simplified copy next to the shape
+    geoData.setGeometry(null);
+    try {
+      mongoTemplate.getConverter().write(geoData, fields);
+    } finally {
+      geoData.setGeometry(areaGeometry);
+    }
+    fields.remove("_id");
+    fields.remove("version");
+    Arrays.stream(GEOMETRY_FIELDS).forEach(fields::remove);
+    UUID shapeId = null;
+    List<GeoDataChunk> chunks = List.of();
+    if (geometry != null && geometry.getNumPoints() > indexMaxVertices) {
+      long startTime = System.nanoTime();
+      byte[] shape = ShapeCodec.encode(geometry, GeometryConfig.PRECISION_SCALE);
+      Geometry index = TopologyPreservingSimplifier.simplify(geometry, indexTolerance);
+      geoMetrics.recordStage("encode", System.nanoTime() - startTime);
+      fields.put("geometry", toRawBson(index));
+      fields.put("indexTolerance", indexTolerance);
+      if (shape.length <= chunkSize) {
+        fields.put("shape", new Binary(shape));
+      } else {
+        shapeId = UUID.randomUUID();
+        chunks = split(geoData.getId(), shapeId, shape);
+        fields.put("shapeChunks", chunks.size());
+        fields.put("shapeId", shapeId);
+      }
+    } else if (geometry != null) {
+      fields.put("geometry", toRawBson(geometry));
+    }
+    Document unset = new Document();
+    for (String field : GEOMETRY_FIELDS) {
+      if (!fields.containsKey(field)) {
+        unset.put(field, "");
+      }
+    }
+    Document update = new Document("$set", fields).append("$inc", new Document("version", 1L));
+    if (!unset.isEmpty()) {
+      update.append("$unset", unset);
+    }
+    return new Encoded(update, shapeId, chunks);
+  }
+
+  private List<GeoDataChunk> split(UUID geoDataId, UUID shapeId, byte[] shape) {
+    List<GeoDataChunk> chunks = new ArrayList<>();
+    for (int offset = 0; offset < shape.length; offset += chunkSize) {
+      GeoDataChunk chunk = new GeoDataChunk();
+      chunk.setId(UUID.randomUUID());
+      chunk.setGeoDataId(geoDataId);
+      chunk.setShapeId(shapeId);
+      chunk.setIndex(chunks.size());
+      chunk.setData(Arrays.copyOfRange(shape, offset, Math.min(shape.length, offset + chunkSize)));
+      chunks.add(chunk);
+    }
+    return chunks;
+  }
+
+  private void insertChunks(List<GeoDataChunk> chunks) {
+    if (!chunks.isEmpty()) {
+      // Written before the polygon that refers to them
+      mongoTemplate.insert(chunks, GeoDataChunk.class);
+    }
+  }
+
+  /**
+   * Reads a chunked shape. When its chunks are gone, the polygon was replaced after it was read and the current
+   * geometry is returned instead.
+   */
+  private Geometry loadChunked(UUID id, UUID shapeId, int chunkCount) {
+    byte[] shape = loadShape(id, shapeId, chunkCount);
+    if (shape != null) {
+      return decode(shape);
+    }
+    Query current = Query.query(Criteria.where("_id").is(id));
+    current.fields().include(GEOMETRY_FIELDS);
+    GeoData polygon = mongoTemplate.findOne(current, GeoData.class);
+    return polygon == null || polygon.getGeometry() == null ? null : polygon.getGeometry().getGeometry();
+  }
+
+  /**
+   * The bytes of a chunked shape, or null when its chunks are gone.
+   */
+  private byte[] loadShape(UUID id, UUID shapeId, int chunkCount) {
+    Query query = Query.query(Criteria.where("geoDataId").is(id).and("shapeId").is(shapeId))
+        .with(Sort.by("index"));
+    List<GeoDataChunk> chunks = mongoTemplate.find(query, GeoDataChunk.class);
+    if (chunks.size() != chunkCount) {
+      log.info("Polygon - Shape {} of {} was replaced while reading, loading the current one", shapeId, id);
+      return null;
+    }
+    ByteArrayOutputStream shape = new ByteArrayOutputStream(chunkCount * chunkSize);
+    chunks.forEach(chunk -> shape.writeBytes(chunk.getData()));
+    return shape.toByteArray();
+  }
+
+  private Geometry decode(byte[] shape) {
+    long startTime = System.nanoTime();
+    Geometry geometry = ShapeCodec.decode(shape, geometryFactory);
+    geoMetrics.recordStage("decode", System.nanoTime() - startTime);
+    return geometry;
+  }
+
+  private RawBsonDocument toRawBson(Geometry geometry) {
+    long startTime = System.nanoTime();
+    BasicOutputBuffer buffer = new BasicOutputBuffer();
+    try (BsonBinaryWriter writer = new BsonBinaryWriter(buffer)) {
+      GeoJsonGeometryWriter.write(geometry, writer);
+    }
+    geoMetrics.recordStage("serialize", System.nanoTime() - startTime);
+    return new RawBsonDocument(buffer.getInternalBuffer(), 0, buffer.getPosition());
+  }
+
+  private MongoCollection<Document> collection() {
+    return mongoTemplate.getCollection(mongoTemplate.getCollectionName(GeoData.class));
+  }
+
+  private MongoCollection<Document> chunks() {
+    return mongoTemplate.getCollection(mongoTemplate.getCollectionName(GeoDataChunk.class));
+  }
+
+  private record Encoded(Document update, UUID shapeId, List<GeoDataChunk> chunks) {
+  }
+}
@@ -1,44 +1,34 @@
 package com.trimble.area.geojson.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
+import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.trimble.area.geojson.client.PcMilerClient;
+import com.trimble.area.geojson.cache.TileCache;
+import com.trimble.area.geojson.cache.VersionCache;
+import com.trimble.area.geojson.geometry.CellCoverer;
+import com.trimble.area.geojson.geometry.CellCovering;
+import com.trimble.area.geojson.geometry.ExclusionClipper;
+import com.trimble.area.geojson.geometry.UnionEngine;
+import com.trimble.area.geojson.metrics.GeoMetrics;
 import com.trimble.area.geojson.model.Area;
 import com.trimble.area.geojson.model.AreaGeometry;
 import com.trimble.area.geojson.model.AreaPoint;
 import com.trimble.area.geojson.model.GeoData;
-import com.trimble.area.geojson.model.GeoJson;
-import com.trimble.area.geojson.model.MapsPolygon;
+import com.trimble.area.geojson.model.GeoDataLevel;
+import com.trimble.area.geojson.model.MergeInputs;
 import com.trimble.area.geojson.repository.GeoDataRepository;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.locationtech.jts.geom.Geometry;
-import org.locationtech.jts.geom.GeometryCollection;
-import org.locationtech.jts.geom.GeometryFactory;
-import org.locationtech.jts.geom.PrecisionModel;
-import org.locationtech.jts.geom.util.GeometryFixer;
-import org.locationtech.jts.io.ParseException;
-import org.locationtech.jts.io.WKTReader;
-import org.locationtech.jts.io.geojson.GeoJsonWriter;
-import org.locationtech.jts.precision.GeometryPrecisionReducer;
-import org.springframework.beans.factory.annotation.Value;
+import org.locationtech.jts.geom.Point;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -46,80 +36,203 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class GeoJsonService {
 
-  private static final int BATCH_SIZE = 100;
-  private static final int THREAD_POOL_SIZE = 15;
-  private static final int PRECISION_SCALE = 1000;
-  private static final Set<String> usStates =
-      Set.of("AL", "AK", "AZ", "AR", "CA", "CO", "CT", "DE", "DC", "FL", "GA", "HI", "ID", "IL", "IN", "IA", "KS", "KY", "LA", "ME", "MD",
-          "MA", "MI", "MN", "MS", "MO", "MT", "NE", "NV", "NH", "NJ", "NM", "NY", "NC", "ND", "OH", "OK", "OR", "PA", "RI", "SC", "SD",
-          "TN", "TX", "UT", "VT", "VA", "WA", "WV", "WI", "WY");
-  private static final Set<String> caStates = Set.of("AB", "BC", "MB", "NB", "NL", "NS", "ON", "PE", "QC", "SK", "NT", "NU", "YT");
-  private final PcMilerClient pcMilerClient;
-  private final ObjectMapper objectMapper;
-  private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(PRECISION_SCALE), 4326);
-  private final WKTReader wktReader = new WKTReader(geometryFactory);
+  private final MergePlanner mergePlanner;
+  private final BoundaryService boundaryService;
+  private final IncrementalMergeService incrementalMergeService;
+  private final GeometryLevelService geometryLevelService;
+  private final TileCache tileCache;
+  private final VersionCache versionCache;
+  private final GeofenceService geofenceService;
+  private final UnionEngine unionEngine;
+  private final ExclusionClipper exclusionClipper;
+  private final CellCoverer cellCoverer;
+  private final MergeReuseService mergeReuseService;
+  private final GeoDataStore geoDataStore;
+  private final GeoMetrics geoMetrics;
   private final GeoDataRepository geoDataRepository;
-  @Value("${pc-miler.api.key}")
-  private String token;
+  private final ObjectMapper objectMapper;
 
   public GeoData mergePolygon(Area area) {
-    long startTime = System.currentTimeMillis();
+    MergeResult result = buildPolygon(area, mergePlanner.plan(area), SubUnionCache.disabled());
+    if (result.geoData() == null) {
+      deletePolygon(area);
+      return null;
+    }
+    if (result.includeGeometry() != null) {
+      incrementalMergeService.saveState(area.getId(), result.inputs(), result.includeGeometry());
+    }
+    GeoData saved = savePolygon(result.geoData());
+    if (saved != null) {
+      geometryLevelService.replace(List.of(area.getId()), result.levels(), List.of(saved));
+    }
+    publishChange(area.getId(), saved);
+    return saved;
+  }
+
+  /**
+   * Updates the in-memory views of merged areas after the area's polygon was saved, or removed when it is null: its
+   * version is published for conditional GeoJSON requests, cached vector tiles that showed the area or that its new
+   * polygon reaches are dropped, and the geofence index is updated.
+   */
+  public void publishChange(UUID areaId, GeoData geoData) {
+    versionCache.publish(geoData != null ? geoData.getId() : areaId, geoData != null ? geoData.getVersion() : null);
+    boolean hasGeometry = geoData != null && geoData.getGeometry() != null && geoData.getGeometry().getGeometry() != null;
+    tileCache.invalidateArea(areaId, hasGeometry ? geoData.getGeometry().getGeometry().getEnvelopeInternal() : null);
+    geofenceService.update(areaId, geoData);
+  }
+
+  /**
+   * Merges the area without persisting anything; see {@link MergeResult}. An area defined like one merged recently is
+   * given a copy of that polygon instead.
+   */
+  public MergeResult buildPolygon(Area area, MergeInputs inputs, SubUnionCache subUnions) {
+    MergeStages stages = new MergeStages(geoMetrics);
+    MissingCodes missing = new MissingCodes();
     try {
-      return processPolygon(area, startTime);
+      String hash = MergeReuseService.hash(inputs);
+      Optional<MergeResult> reused = stages.run("reuse", () -> reuse(area, inputs, hash));
+      if (reused.isPresent()) {
+        recordTimings(reused.get().geoData(), stages);
+        return reused.get();
+      }
+      return processPolygon(area, inputs, subUnions, stages, missing, hash);
     } catch (Exception ex) {
       log.error("Polygon - Error while merging polygons {}", ex.getMessage(), ex);
-      long processTime = System.currentTimeMillis() - startTime;
-      return savePolygon(area, null, null, ex.getMessage(), processTime);
+      GeoData geoData = newPolygon(area, null, null, ex.getMessage());
+      geoData.setMissingCodes(missing.toMap());
+      recordTimings(geoData, stages);
+      return new MergeResult(area, inputs, null, geoData, List.of());
     }
   }
 
-  private GeoData processPolygon(Area area, long startTime) {
-    var statesMap = processStatesCountries(area.getStates(), area.getCountries());
-    var postalMap = processPostals(area.getPostalRanges(), area.getPostalCodes());
+  /**
+   * Runs the merge as timed stages. Boundaries are made valid and put on the precision grid once, when they are parsed,
+   * and every union and difference snap-rounds to that grid, so the output of each stage is known to be valid: no
+   * precision reduction, validity check or repair pass runs over the merged geometry.
+   * <p>
+   * Boundaries whose lookup failed are left out and reported in {@link GeoData#getMissingCodes()}. The include union
+   * is then not returned, so it does not become the base of the next incremental merge.
+   */
+  private MergeResult processPolygon(Area area, MergeInputs inputs, SubUnionCache subUnions, MergeStages stages,
+                                     MissingCodes missing, String hash) {
+    Geometry includeGeometry = stages.run("include-union",
+        () -> incrementalMergeService.includeUnion(area.getId(), inputs, subUnions, missing));
+    boolean includesComplete = missing.isEmpty();
+    if (includeGeometry.isEmpty() && !includesComplete) {
+      // Not an empty area, so it is reported as a failed merge rather than deleted
+      throw new IllegalStateException("No include boundary could be fetched, missing " + missing.toMap());
+    }
+    if (includeGeometry.isEmpty()) {
+      log.warn("Polygon - include area is empty. Id - {} ", area.getId());
+      return new MergeResult(area, inputs, null, null, List.of());
+    }
+    Geometry excludeGeometry = stages.run("exclude-union",
+        () -> boundaryService.unionBoundaries(inputs.getExclude(), subUnions, missing));
+    log.info("Polygon - Difference Geometries");
+    Geometry geometry = stages.run("difference", () -> exclusionClipper.difference(includeGeometry, excludeGeometry));
+    AreaPoint areaPoint = stages.run("centroid", () -> centroid(geometry));
+    GeoData geoData = newPolygon(area, new AreaGeometry(geometry), areaPoint, null);
+    CellCovering covering = stages.run("covering", () -> cellCoverer.cover(geometry));
+    geoData.setInteriorCells(covering.interiorCells());
+    geoData.setBoundaryCells(covering.boundaryCells());
+    List<GeoDataLevel> levels = stages.run("levels", () -> geometryLevelService.simplify(geoData, geometry));
+    recordTimings(geoData, stages);
+    if (missing.isEmpty()) {
+      geoData.setGeometryHash(hash);
+    } else {
+      log.warn("Polygon - Merged {} without the boundaries that could not be fetched {}", area.getId(), missing.toMap());
+      geoData.setMissingCodes(missing.toMap());
+    }
+    return new MergeResult(area, inputs, includesComplete ? includeGeometry : null, geoData, levels);
+  }
 
-    List<MapsPolygon> includeList = new ArrayList<>();
-    List<MapsPolygon> excludeList = new ArrayList<>();
-    includeList.addAll(statesMap.getOrDefault(true, List.of()));
-    includeList.addAll(postalMap.getOrDefault(true, List.of()));
-    excludeList.addAll(statesMap.getOrDefault(false, List.of()));
-    excludeList.addAll(postalMap.getOrDefault(false, List.of()));
+  /**
+   * Copies the stored polygon of an identical area definition, with its covering and levels. No include union is
+   * returned, so the area's merge state is left as it is.
+   */
+  private Optional<MergeResult> reuse(Area area, MergeInputs inputs, String hash) {
+    return mergeReuseService.find(hash).map(source -> {
+      log.info("Polygon - Reusing polygon {} of area {} for area {}", source.getId(), source.getAreaId(), area.getId());
+      GeoData geoData = newPolygon(area, source.getGeometry(), source.getCenterPoint(), null);
+      geoData.setInteriorCells(source.getInteriorCells());
+      geoData.setBoundaryCells(source.getBoundaryCells());
+      geoData.setGeometryHash(hash);
+      return new MergeResult(area, inputs, null, geoData, geometryLevelService.copy(source.getId(), geoData));
+    });
+  }
 
-    if (CollectionUtils.isNotEmpty(includeList)) {
-      var geometry = combineIntoOneGeometry(includeList, excludeList);
-      geometry = new GeometryPrecisionReducer(new PrecisionModel(PRECISION_SCALE)).reduce(geometry);
-      if (!geometry.isValid()) {
-        geometry = GeometryFixer.fix(geometry);
-      }
-      var Geometry = convertGeometry(geometry);
-      AreaPoint areaPoint = new AreaPoint();
-      if (Objects.nonNull(geometry.getCentroid())) {
-        areaPoint.setLatitude(geometry.getCentroid().getY());
-        areaPoint.setLongitude(geometry.getCentroid().getX());
-      }
-      long processTime = System.currentTimeMillis() - startTime;
-      return savePolygon(area, Geometry, areaPoint, null, processTime);
-    } else {
-      log.warn("Polygon - include area is empty. Id - {} ", area.getId());
-      deletePolygon(area);
+  private AreaPoint centroid(Geometry geometry) {
+    AreaPoint areaPoint = new AreaPoint();
+    Point centroid = geometry.getCentroid();
+    if (!centroid.isEmpty()) {
+      areaPoint.setLatitude(centroid.getY());
+      areaPoint.setLongitude(centroid.getX());
     }
-    return null;
+    return areaPoint;
+  }
+
+  private void recordTimings(GeoData geoData, MergeStages stages) {
+    geoData.setProcessTime(stages.totalMillis());
+    geoData.setProcessStages(stages.durations());
   }
 
   public void deletePolygon(Area area) {
-    geoDataRepository.deleteByAreaId(area.getId());
+    geoDataStore.deleteByAreaId(area.getId());
+    incrementalMergeService.deleteState(area.getId());
+    geometryLevelService.deleteByAreaId(area.getId());
+    publishChange(area.getId(), null);
   }
 
-  public GeoJson getGeoJsonById(UUID id) {
-    var polygon = geoDataRepository.findById(id);
-    if (polygon.isEmpty() || Objects.isNull(polygon.get().getGeometry())) {
-      return null;
+  /**
+   * Loads only the full geometry of a polygon with its version, or null if the polygon does not exist or has none.
+   * With a level tolerance the matching simplified level is returned instead, falling back to the full geometry.
+   */
+  public StoredGeometry getStoredGeometry(UUID id, Double level) {
+    if (level != null) {
+      StoredGeometry simplified = geometryLevelService.getStoredGeometry(id, level);
+      if (simplified != null) {
+        return simplified;
+      }
+    }
+    return geoDataStore.getStoredGeometry(id);
+  }
+
+  /**
+   * Version of the stored polygon, raised by every merge of its area, or null if there is none. Versions published by
+   * saves are served from memory; others are read from Mongo and cached.
+   */
+  public Long getVersion(UUID id) {
+    Long version = versionCache.get(id);
+    if (version != null) {
+      return version;
+    }
+    long generation = versionCache.generation();
+    version = geoDataStore.getVersion(id);
+    if (version != null) {
+      versionCache.put(id, version, generation);
+    }
+    return version;
+  }
+
+  /**
+   * Writes the geometry as a one-feature GeoJSON FeatureCollection.
+   */
+  public void writeGeoJson(StoredGeometry geometry, OutputStream out) throws IOException {
+    try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      generator.writeStartObject();
+      generator.writeStringField("type", "FeatureCollection");
+      generator.writeArrayFieldStart("features");
+      generator.writeStartObject();
+      generator.writeStringField("type", "Feature");
+      generator.writeFieldName("geometry");
+      geometry.write(generator);
+      generator.writeObjectFieldStart("properties");
+      generator.writeEndObject();
+      generator.writeEndObject();
+      generator.writeEndArray();
+      generator.writeEndObject();
     }
-    var polygonData = polygon.get();
-    GeoJson.Feature feature = new GeoJson.Feature();
-    feature.setGeometry(polygonData.getGeometry());
-    GeoJson areaGeoJson = new GeoJson();
-    areaGeoJson.add(feature);
-    return areaGeoJson;
   }
 
   public AreaPoint getCentroidById(UUID id) {
@@ -130,19 +243,22 @@ public class GeoJsonService {
     return polygon.get().getCenterPoint();
   }
 
-  private GeoData savePolygon(Area area, AreaGeometry geometry, AreaPoint point, String message, Long processTime) {
+  private GeoData newPolygon(Area area, AreaGeometry geometry, AreaPoint point, String message) {
     var areaPolygon = new GeoData();
-    areaPolygon.setId(UUID.randomUUID());
+    // One document per area, replaced by every merge
+    areaPolygon.setId(area.getId() != null ? area.getId() : UUID.randomUUID());
     areaPolygon.setAreaId(area.getId());
     areaPolygon.setGeometry(geometry);
     areaPolygon.setErrorMessage(message);
     areaPolygon.setCreatedAtDateTime(Instant.now());
-    areaPolygon.setProcessTime(processTime);
     areaPolygon.setCenterPoint(point);
+    return areaPolygon;
+  }
+
+  public GeoData savePolygon(GeoData areaPolygon) {
     try {
       log.info("Polygon - Saving Geometries");
-      deletePolygon(area);
-      return geoDataRepository.save(areaPolygon);
+      return geoDataStore.save(areaPolygon);
     } catch (Exception ex) {
       log.error("Polygon - Error while saving polygons {}", ex.getMessage(), ex);
       handleSaveError(areaPolygon, ex.getMessage());
@@ -153,205 +269,23 @@ public class GeoJsonService {
   private void handleSaveError(GeoData areaPolygon, String errorMessage) {
     areaPolygon.setErrorMessage(errorMessage);
     areaPolygon.setGeometry(null);
+    areaPolygon.setInteriorCells(null);
+    areaPolygon.setBoundaryCells(null);
     try {
-      geoDataRepository.save(areaPolygon);
+      geoDataStore.save(areaPolygon);
     } catch (Exception ex) {
       log.error("Polygon - Error while saving error polygon: {}", ex.getMessage(), ex);
     }
   }
 
-  private Map<Boolean, List<MapsPolygon>> processPostals(List<Area.PostalRange> postalRanges, List<Area.PostalCode> postalCodes) {
-    if (CollectionUtils.isEmpty(postalRanges) && CollectionUtils.isEmpty(postalCodes)) {
-      return Map.of();
-    }
-    Set<String> includePostal = new HashSet<>();
-    Set<String> excludePostal = new HashSet<>();
-
-    postalRanges.stream()
-        .filter(postal -> "US".equalsIgnoreCase(postal.getCountry().getCode()))
-        .forEach(postal -> {
-          var range = generatePostalRange(postal.getStartRange(), postal.getEndRange());
-          if (postal.getInclude()) {
-            includePostal.addAll(range);
-          } else {
-            excludePostal.addAll(range);
-          }
-        });
-
-    postalCodes.stream()
-        .filter(postal -> "US".equalsIgnoreCase(postal.getCountry().getCode()))
-        .forEach(postal -> {
-          if (postal.getInclude()) {
-            includePostal.add(postal.getCode());
-          } else {
-            excludePostal.add(postal.getCode());
-          }
-        });
-
-    return Map.of(
-        true, processPostal(new ArrayList<>(includePostal)),
-        false, processPostal(new ArrayList<>(excludePostal))
-    );
-  }
-
-  private List<String> generatePostalRange(String startRange, String endRange) {
-    int start = Integer.parseInt(startRange);
-    int end = Integer.parseInt(endRange);
-    int length = startRange.length();
-
-    return IntStream.rangeClosed(start, end)
-        .mapToObj(i -> String.format("%0" + length + "d", i))
-        .collect(Collectors.toList());
-  }
-
-  private List<MapsPolygon> processPostal(List<String> postalCodes) {
-    ExecutorService executor = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
-    List<CompletableFuture<List<MapsPolygon>>> futures = Stream.iterate(0, n -> n + BATCH_SIZE)
-        .limit((postalCodes.size() + BATCH_SIZE - 1) / BATCH_SIZE)
-        .map(start -> CompletableFuture.supplyAsync(() -> getPostalCodePolygons(
-            String.join(",", postalCodes.subList(start, Math.min(start + BATCH_SIZE, postalCodes.size())))
-        ), executor)).toList();
-
-    var result = futures.stream()
-        .map(CompletableFuture::join)
-        .flatMap(List::stream)
-        .collect(Collectors.toList());
-
-    executor.shutdown();
-    return result;
-  }
-
-  private List<MapsPolygon> getPostalCodePolygons(String postalCodes) {
-    try {
-      return pcMilerClient.getPostalCodePolygon(token, postalCodes);
-    } catch (Exception ex) {
-      log.error("Polygon - Error while getting postal code polygon {} : {}", postalCodes, ex.getMessage());
-      return List.of();
-    }
-  }
-
-  private Map<Boolean, List<MapsPolygon>> processStatesCountries(List<Area.State> states, List<Area.Country> countries) {
-    if (CollectionUtils.isEmpty(states) && CollectionUtils.isEmpty(countries)) {
-      return Map.of();
-    }
-
-    Set<String> includeStates = new HashSet<>();
-    Set<String> excludeStates = new HashSet<>();
-    Set<String> stateCodes = new HashSet<>();
-
-    if (CollectionUtils.isNotEmpty(countries)) {
-      for (Area.Country country : countries) {
-        String code = country.getCode().toUpperCase();
-        Set<String> relevantStates = "US".equals(code) ? usStates : "CA".equals(code) ? caStates : Set.of();
-        stateCodes.addAll(relevantStates);
-        if (country.getInclude()) {
-          includeStates.addAll(relevantStates);
-        } /*else {
-          // Skipping Country exclusion
-          excludeStates.addAll(relevantStates);
-        }*/
-      }
-    }
-
-    if (CollectionUtils.isNotEmpty(states)) {
-      for (Area.State state : states) {
-        String country = state.getCountry().getCode().toUpperCase();
-        if ("US".equals(country) || "CA".equals(country)) {
-          String stateCode = state.getCode();
-          stateCodes.add(stateCode);
-          if (state.getInclude()) {
-            includeStates.add(stateCode);
-          } else {
-            excludeStates.add(stateCode);
-          }
-        }
-      }
-    }
-
-    stateCodes.removeAll(excludeStates);
-    if (CollectionUtils.isEmpty(stateCodes)) {
-      return Map.of();
-    }
-    List<MapsPolygon> polygons = getStatesPolygons(String.join(",", stateCodes));
-    if (polygons.isEmpty()) {
-      return Map.of();
-    }
-
-    Map<Boolean, List<MapsPolygon>> polygonsMap = new HashMap<>();
-    for (MapsPolygon polygon : polygons) {
-      String abbreviation = polygon.getAbbreviation();
-      if (includeStates.contains(abbreviation)) {
-        polygonsMap.computeIfAbsent(true, k -> new ArrayList<>()).add(polygon);
-      } else if (excludeStates.contains(abbreviation)) {
-        polygonsMap.computeIfAbsent(false, k -> new ArrayList<>()).add(polygon);
-      }
-    }
-
-    return polygonsMap;
-  }
-
-  private List<MapsPolygon> getStatesPolygons(String states) {
-    try {
-      return pcMilerClient.getStatesPolygon(token, states);
-    } catch (Exception ex) {
-      log.error("Polygon - Error while getting states polygon {} : {}", states, ex.getMessage());
-      return List.of();
-    }
-  }
-
-  private AreaGeometry convertGeometry(Geometry geometry) {
-    GeoJsonWriter geoJsonWriter = new GeoJsonWriter();
-    String geoJson = geoJsonWriter.write(geometry);
-    try {
-      return objectMapper.readValue(geoJson, AreaGeometry.class);
-    } catch (Exception e) {
-      log.error("Polygon - Error converting Geometry- {}", e.getMessage());
-      throw new RuntimeException("Error converting Geometry " + e.getMessage(), e);
-    }
-  }
-
-  @SneakyThrows
-  public Geometry combineIntoOneGeometry(List<MapsPolygon> includeList, List<MapsPolygon> excludeList) {
+  public Geometry combineIntoOneGeometry(List<Geometry> includeList, List<Geometry> excludeList) {
     if (CollectionUtils.isEmpty(includeList)) {
       return null;
     }
-
-    Geometry combinedGeometry = unionGeometries(includeList);
-
+    // Boundaries are fixed when they are parsed, so the unions need no buffer(0) or repair pass
+    Geometry combinedGeometry = unionEngine.union(includeList, true);
     if (CollectionUtils.isNotEmpty(excludeList)) {
-      Geometry excludeGeometry = unionGeometries(excludeList);
-      log.info("Polygon - Difference Geometries");
-      combinedGeometry = combinedGeometry.difference(excludeGeometry);
-      if (!combinedGeometry.isValid()) {
-        combinedGeometry = GeometryFixer.fix(combinedGeometry);
-      }
-    }
-
-    return combinedGeometry;
-  }
-
-  private Geometry unionGeometries(List<MapsPolygon> polygons) {
-    log.info("Polygon - Union Geometries");
-    List<Geometry> geometries = polygons.parallelStream()
-        .map(geoData -> {
-          try {
-            Geometry geometry = wktReader.read(geoData.getPolygon());
-            if (!geometry.isValid()) {
-              geometry = GeometryFixer.fix(geometry);
-            }
-            return geometry;
-          } catch (ParseException e) {
-            throw new RuntimeException(e);
-          }
-        }).collect(Collectors.toList());
-    Geometry geometryCollection = geometryFactory.buildGeometry(geometries);
-    Geometry combinedGeometry = geometryCollection.union();
-    // Convert to single Geometry if it is a GeometryCollection
-    if (combinedGeometry instanceof GeometryCollection) {
-      combinedGeometry = combinedGeometry.buffer(0);
-    }
-    if (!combinedGeometry.isValid()) {
-      combinedGeometry = GeometryFixer.fix(combinedGeometry);
+      combinedGeometry = exclusionClipper.difference(combinedGeometry, unionEngine.union(excludeList, true));
     }
     return combinedGeometry;
   }
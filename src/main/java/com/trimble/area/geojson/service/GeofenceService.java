@@ -0,0 +1,228 @@
+package com.trimble.area.geojson.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import com.trimble.area.geojson.geometry.AreaIndex;
+import com.trimble.area.geojson.geometry.CellCovering;
+import com.trimble.area.geojson.metrics.GeoMetrics;
+import com.trimble.area.geojson.model.AreaPoint;
+import com.trimble.area.geojson.model.GeoData;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.algorithm.locate.SimplePointInAreaLocator;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Location;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Answers which areas contain a point from an in-memory {@link AreaIndex} of the merged polygons. The index is loaded
+ * in the background once the application is ready and kept current as merges save or delete polygons. Until it is
+ * loaded, or if the polygons would not fit in {@code geo.geofence.max-vertices} or the free heap, lookups go to Mongo
+ * with one query per point, pre-filtered by the polygons' cell coverings.
+ */
+@Slf4j
+@Service
+public class GeofenceService {
+
+  /**
+   * Rough heap cost of an indexed vertex: the coordinate itself plus its share of the locator's interval tree.
+   */
+  private static final long BYTES_PER_VERTEX = 64;
+  private static final int PARALLEL_BATCH_SIZE = 1024;
+
+  private enum State { LOADING, READY, DISABLED }
+
+  private final MongoTemplate mongoTemplate;
+  private final ExecutorService indexExecutor = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "geofence-index");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private final AreaIndex areaIndex;
+  private final Map<UUID, Optional<GeoData>> pendingChanges = new ConcurrentHashMap<>();
+  private final long maxVertices;
+  private volatile State state = State.LOADING;
+
+  public GeofenceService(MongoTemplate mongoTemplate, GeoMetrics geoMetrics,
+                         @Value("${geo.geofence.max-vertices:20000000}") long maxVertices,
+                         @Value("${geo.geofence.rebuild-threshold:256}") int rebuildThreshold) {
+    this.mongoTemplate = mongoTemplate;
+    this.maxVertices = maxVertices;
+    this.areaIndex = new AreaIndex(indexExecutor, rebuildThreshold);
+    geoMetrics.gauge("geo.geofence.areas", "Areas in the in-memory geofence index", areaIndex, AreaIndex::size);
+    geoMetrics.gauge("geo.geofence.vertices", "Vertices held by the in-memory geofence index", areaIndex,
+        AreaIndex::vertexCount);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmLoad() {
+    indexExecutor.execute(this::load);
+  }
+
+  @PreDestroy
+  public void stop() {
+    indexExecutor.shutdownNow();
+  }
+
+  /**
+   * Returns, for each point in order, the ids of the areas containing it.
+   */
+  public List<List<UUID>> findContaining(List<AreaPoint> points) {
+    for (AreaPoint point : points) {
+      if (point == null || point.getLatitude() == null || point.getLongitude() == null) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Every point needs a latitude and a longitude");
+      }
+    }
+    if (state != State.READY) {
+      return points.stream().map(this::findInMongo).toList();
+    }
+    IntStream indexes = IntStream.range(0, points.size());
+    if (points.size() >= PARALLEL_BATCH_SIZE) {
+      indexes = indexes.parallel();
+    }
+    return indexes.mapToObj(i -> findInIndex(points.get(i))).toList();
+  }
+
+  /**
+   * Applies a saved polygon, or removes the area when it has no polygon any more.
+   */
+  public void update(UUID areaId, GeoData geoData) {
+    if (areaId == null) {
+      return;
+    }
+    synchronized (pendingChanges) {
+      apply(areaId, geoData);
+    }
+  }
+
+  private void apply(UUID areaId, GeoData geoData) {
+    switch (state) {
+      case LOADING -> pendingChanges.put(areaId, Optional.ofNullable(geoData));
+      case READY -> {
+        Geometry geometry = geoData == null || geoData.getGeometry() == null ? null : geoData.getGeometry().getGeometry();
+        areaIndex.put(areaId, geometry, geoData == null ? null : covering(geoData));
+        if (areaIndex.vertexCount() > maxVertices) {
+          disable("the index grew past " + maxVertices + " vertices");
+        }
+      }
+      case DISABLED -> {
+      }
+    }
+  }
+
+  private List<UUID> findInIndex(AreaPoint point) {
+    List<UUID> areaIds = new ArrayList<>(2);
+    areaIndex.findContaining(new Coordinate(point.getLongitude(), point.getLatitude()), areaIds::add);
+    return areaIds;
+  }
+
+  /**
+   * Matches areas with an interior cell containing the point from the cell indexes alone, and runs the geometry test
+   * only on areas with a boundary cell containing it. Polygons saved before coverings existed have no cells and are
+   * tested directly. Large polygons only index a simplified geometry, so their boundary candidates are tested here
+   * against the full shape.
+   */
+  private List<UUID> findInMongo(AreaPoint point) {
+    List<Long> cells = Arrays.stream(CellCovering.ancestorIds(point.getLongitude(), point.getLatitude()))
+        .boxed().toList();
+    GeoJsonPoint location = new GeoJsonPoint(point.getLongitude(), point.getLatitude());
+    Query query = new Query(new Criteria().orOperator(
+        Criteria.where("interiorCells").in(cells),
+        Criteria.where("boundaryCells").in(cells).and("indexTolerance").exists(false)
+            .and("geometry").intersects(location),
+        Criteria.where("boundaryCells").exists(false).and("geometry").intersects(location)));
+    query.fields().include("areaId");
+    List<UUID> areaIds = new ArrayList<>(mongoTemplate.find(query, GeoData.class).stream()
+        .map(GeoData::getAreaId).distinct().toList());
+    Query shapes = new Query(Criteria.where("boundaryCells").in(cells).and("indexTolerance").exists(true)
+        .and("areaId").nin(areaIds));
+    shapes.fields().include("areaId").include(GeoDataStore.GEOMETRY_FIELDS);
+    Coordinate coordinate = new Coordinate(point.getLongitude(), point.getLatitude());
+    for (GeoData polygon : mongoTemplate.find(shapes, GeoData.class)) {
+      if (polygon.getGeometry() != null && !areaIds.contains(polygon.getAreaId())
+          && SimplePointInAreaLocator.locate(coordinate, polygon.getGeometry().getGeometry()) != Location.EXTERIOR) {
+        areaIds.add(polygon.getAreaId());
+      }
+    }
+    return areaIds;
+  }
+
+  private void load() {
+    long startTime = System.currentTimeMillis();
+    Map<UUID, Geometry> geometries = new HashMap<>();
+    Map<UUID, CellCovering> coverings = new HashMap<>();
+    long vertices = 0;
+    Query query = new Query(Criteria.where("geometry").ne(null));
+    query.fields().include("areaId").include(GeoDataStore.GEOMETRY_FIELDS).include("interiorCells")
+        .include("boundaryCells");
+    try (Stream<GeoData> polygons = mongoTemplate.stream(query, GeoData.class)) {
+      for (GeoData polygon : (Iterable<GeoData>) polygons::iterator) {
+        if (polygon.getAreaId() == null || polygon.getGeometry() == null) {
+          continue;
+        }
+        Geometry geometry = polygon.getGeometry().getGeometry();
+        vertices += geometry.getNumPoints();
+        if (vertices > maxVertices || !fitsInHeap(vertices)) {
+          disable("the stored polygons exceed " + (vertices > maxVertices ? maxVertices + " vertices" : "the free heap"));
+          return;
+        }
+        geometries.put(polygon.getAreaId(), geometry);
+        coverings.put(polygon.getAreaId(), covering(polygon));
+      }
+      areaIndex.load(geometries, coverings);
+      // Changes saved while loading are replayed before any new change reaches the index
+      synchronized (pendingChanges) {
+        state = State.READY;
+        pendingChanges.forEach((areaId, geoData) -> apply(areaId, geoData.orElse(null)));
+        pendingChanges.clear();
+      }
+      log.info("Geofence - Loaded {} areas with {} vertices in {} ms", geometries.size(), vertices,
+          System.currentTimeMillis() - startTime);
+    } catch (Exception ex) {
+      log.error("Geofence - Error while loading the index, falling back to Mongo {}", ex.getMessage(), ex);
+      disable("loading failed");
+    }
+  }
+
+  private static CellCovering covering(GeoData geoData) {
+    if (geoData.getInteriorCells() == null || geoData.getBoundaryCells() == null) {
+      return null;
+    }
+    return new CellCovering(geoData.getInteriorCells(), geoData.getBoundaryCells());
+  }
+
+  private boolean fitsInHeap(long vertices) {
+    Runtime runtime = Runtime.getRuntime();
+    long available = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+    // Keep half of what is left for merges and requests
+    return vertices * BYTES_PER_VERTEX < available / 2;
+  }
+
+  private void disable(String reason) {
+    state = State.DISABLED;
+    pendingChanges.clear();
+    areaIndex.load(Map.of(), Map.of());
+    log.warn("Geofence - In-memory index disabled because {}, lookups use Mongo", reason);
+  }
+}
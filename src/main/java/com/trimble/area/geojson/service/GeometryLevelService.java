@@ -0,0 +1,195 @@
+package com.trimble.area.geojson.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.trimble.area.geojson.model.AreaGeometry;
+import com.trimble.area.geojson.model.GeoData;
+import com.trimble.area.geojson.model.GeoDataLevel;
+import com.trimble.area.geojson.repository.GeoDataLevelRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.simplify.TopologyPreservingSimplifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+/**
+ * Simplified levels of detail of merged polygons. Each level is simplified from the full geometry with a
+ * topology-preserving simplifier, so levels stay valid and keep every component and hole, and is stored in the
+ * {@code geodata_levels} collection next to its {@link GeoData}. Reads pick the coarsest level whose tolerance is still
+ * within the requested one.
+ */
+@Slf4j
+@Service
+public class GeometryLevelService {
+
+  /**
+   * Degrees covered by one 256 pixel tile at zoom 0.
+   */
+  private static final double TILE_DEGREES = 360.0;
+  private static final int TILE_PIXELS = 256;
+
+  private final GeoDataLevelRepository geoDataLevelRepository;
+  private final MongoTemplate mongoTemplate;
+  private final double[] tolerances;
+  private final int minVertices;
+
+  public GeometryLevelService(GeoDataLevelRepository geoDataLevelRepository, MongoTemplate mongoTemplate,
+                              @Value("${geo.levels.tolerances:0.002,0.01,0.05,0.2}") double[] tolerances,
+                              @Value("${geo.levels.min-vertices:1000}") int minVertices) {
+    this.geoDataLevelRepository = geoDataLevelRepository;
+    this.mongoTemplate = mongoTemplate;
+    this.tolerances = tolerances.clone();
+    Arrays.sort(this.tolerances);
+    this.minVertices = minVertices;
+  }
+
+  /**
+   * Builds the levels of a merged polygon. Geometries below {@code geo.levels.min-vertices} are served in full at
+   * every zoom and get no levels.
+   */
+  public List<GeoDataLevel> simplify(GeoData geoData, Geometry geometry) {
+    List<GeoDataLevel> levels = new ArrayList<>();
+    if (geometry.getNumPoints() < minVertices) {
+      return levels;
+    }
+    int previousVertices = geometry.getNumPoints();
+    for (double tolerance : tolerances) {
+      Geometry simplified = TopologyPreservingSimplifier.simplify(geometry, tolerance);
+      if (simplified.getNumPoints() == previousVertices) {
+        // No simpler than the finer level before it
+        continue;
+      }
+      previousVertices = simplified.getNumPoints();
+      GeoDataLevel level = new GeoDataLevel();
+      level.setId(UUID.randomUUID());
+      level.setGeoDataId(geoData.getId());
+      level.setAreaId(geoData.getAreaId());
+      level.setTolerance(tolerance);
+      level.setGeometry(new AreaGeometry(simplified));
+      level.setVertexCount(previousVertices);
+      levels.add(level);
+    }
+    log.info("Polygon - Simplified {} vertices into {} levels", geometry.getNumPoints(), levels.size());
+    return levels;
+  }
+
+  /**
+   * Replaces the levels of the given areas with the levels of their saved polygons, stamped with the polygons'
+   * versions.
+   */
+  public void replace(Collection<UUID> areaIds, List<GeoDataLevel> levels, Collection<GeoData> polygons) {
+    if (areaIds.isEmpty()) {
+      return;
+    }
+    Map<UUID, Long> versions = new HashMap<>();
+    polygons.forEach(polygon -> versions.put(polygon.getId(), polygon.getVersion()));
+    levels.forEach(level -> level.setVersion(versions.get(level.getGeoDataId())));
+    try {
+      BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, GeoDataLevel.class);
+      operations.remove(Query.query(Criteria.where("areaId").in(areaIds)));
+      if (!levels.isEmpty()) {
+        operations.insert(levels);
+      }
+      operations.execute();
+    } catch (Exception ex) {
+      // Readers fall back to the full geometry when a level is missing
+      log.error("Polygon - Error while saving simplified levels {}", ex.getMessage(), ex);
+    }
+  }
+
+  /**
+   * Copies of the levels of one polygon for another polygon with the same geometry.
+   */
+  public List<GeoDataLevel> copy(UUID sourceGeoDataId, GeoData target) {
+    List<GeoDataLevel> levels = mongoTemplate.find(Query.query(Criteria.where("geoDataId").is(sourceGeoDataId)),
+        GeoDataLevel.class);
+    for (GeoDataLevel level : levels) {
+      level.setId(UUID.randomUUID());
+      level.setGeoDataId(target.getId());
+      level.setAreaId(target.getAreaId());
+    }
+    return levels;
+  }
+
+  public void deleteByAreaId(UUID areaId) {
+    geoDataLevelRepository.deleteByAreaId(areaId);
+  }
+
+  /**
+   * The tolerance in degrees that still renders accurately at the given web map zoom, one pixel of a 256 pixel tile.
+   */
+  public double toleranceForZoom(int zoom) {
+    return TILE_DEGREES / (TILE_PIXELS * Math.pow(2, Math.max(0, zoom)));
+  }
+
+  /**
+   * The coarsest configured tolerance within the requested one, or null if only the full geometry is accurate enough.
+   */
+  public Double levelFor(double tolerance) {
+    Double level = null;
+    for (double candidate : tolerances) {
+      if (candidate <= tolerance) {
+        level = candidate;
+      }
+    }
+    return level;
+  }
+
+  /**
+   * The coarsest level within the given tolerance of every polygon that has one, with only its ids and geometry. Which
+   * level that is comes from a scan of the {@code geoDataId, tolerance} index alone, so finer levels are never read.
+   */
+  public List<GeoDataLevel> getCoarsestLevels(double tolerance) {
+    Query scan = new Query(Criteria.where("tolerance").lte(tolerance))
+        .withHint(new Document("geoDataId", 1).append("tolerance", -1));
+    scan.fields().include("geoDataId", "tolerance").exclude("_id");
+    Map<UUID, Double> chosen = new HashMap<>();
+    mongoTemplate.find(scan, GeoDataLevel.class)
+        .forEach(level -> chosen.merge(level.getGeoDataId(), level.getTolerance(), Math::max));
+    Map<Double, List<UUID>> byTolerance = new HashMap<>();
+    chosen.forEach((geoDataId, level) -> byTolerance.computeIfAbsent(level, key -> new ArrayList<>()).add(geoDataId));
+    List<GeoDataLevel> levels = new ArrayList<>(chosen.size());
+    byTolerance.forEach((level, geoDataIds) -> {
+      Query query = new Query(Criteria.where("geoDataId").in(geoDataIds).and("tolerance").is(level));
+      query.fields().include("geoDataId", "areaId", "geometry");
+      levels.addAll(mongoTemplate.find(query, GeoDataLevel.class));
+    });
+    return levels;
+  }
+
+  /**
+   * Loads the stored geometry of the coarsest level of a polygon within the given tolerance as raw BSON, with the
+   * polygon version it was simplified from, or null if the polygon has no such level.
+   */
+  public StoredGeometry getStoredGeometry(UUID geoDataId, double tolerance) {
+    RawBsonDocument level = mongoTemplate.getCollection(mongoTemplate.getCollectionName(GeoDataLevel.class))
+        .withDocumentClass(RawBsonDocument.class)
+        .find(Filters.and(Filters.eq("geoDataId", geoDataId), Filters.lte("tolerance", tolerance)))
+        .sort(Sorts.descending("tolerance"))
+        .projection(Projections.include("geometry", "version"))
+        .first();
+    BsonValue geometry = level == null ? null : level.get("geometry");
+    if (!(geometry instanceof RawBsonDocument rawGeometry)) {
+      return null;
+    }
+    // Levels from before versions were kept belong to polygons that have none either
+    BsonValue version = level.get("version");
+    return new StoredGeometry(version != null && version.isNumber() ? version.asNumber().longValue() : 0, rawGeometry);
+  }
+}
@@ -0,0 +1,169 @@
+package com.trimble.area.geojson.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.trimble.area.geojson.config.GeometryConfig;
+import com.trimble.area.geojson.geometry.PrecisionOverlay;
+import com.trimble.area.geojson.metrics.GeoMetrics;
+import com.trimble.area.geojson.model.BoundaryType;
+import com.trimble.area.geojson.model.MergeInputs;
+import com.trimble.area.geojson.model.MergeState;
+import com.trimble.area.geojson.repository.MergeStateRepository;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKBReader;
+import org.locationtech.jts.io.WKBWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+/**
+ * Builds the union of an area's includes, reusing the union stored by its previous merge when only boundaries were
+ * added. Removing an include cannot be undone on a union, so any removal, a missing or unreadable state, or an
+ * addition larger than {@code geo.merge.incremental.max-delta} leads to a full rebuild.
+ */
+@Slf4j
+@Service
+public class IncrementalMergeService {
+
+  private final BoundaryService boundaryService;
+  private final MergeStateRepository mergeStateRepository;
+  private final MongoTemplate mongoTemplate;
+  private final GeometryFactory geometryFactory;
+  private final Timer incrementalTimer;
+  private final Timer fullTimer;
+  private final double maxDelta;
+
+  public IncrementalMergeService(BoundaryService boundaryService, MergeStateRepository mergeStateRepository,
+                                 MongoTemplate mongoTemplate, GeometryFactory geometryFactory,
+                                 GeoMetrics geoMetrics,
+                                 @Value("${geo.merge.incremental.max-delta:0.25}") double maxDelta) {
+    this.boundaryService = boundaryService;
+    this.mergeStateRepository = mergeStateRepository;
+    this.mongoTemplate = mongoTemplate;
+    this.geometryFactory = geometryFactory;
+    this.maxDelta = maxDelta;
+    this.incrementalTimer = geoMetrics.timer("geo.merge.include-union", "Union of the include boundaries of a merge",
+        "mode", "incremental");
+    this.fullTimer = geoMetrics.timer("geo.merge.include-union", "Union of the include boundaries of a merge",
+        "mode", "full");
+  }
+
+  public Geometry includeUnion(UUID areaId, MergeInputs inputs, SubUnionCache subUnions, MissingCodes missing) {
+    long startTime = System.nanoTime();
+    Optional<Geometry> incremental = Optional.ofNullable(areaId)
+        .flatMap(mergeStateRepository::findById)
+        .flatMap(state -> incrementalUnion(state, inputs, missing));
+    if (incremental.isPresent()) {
+      incrementalTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+      return incremental.get();
+    }
+    Geometry union = boundaryService.unionBoundaries(inputs.getInclude(), subUnions, missing);
+    fullTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+    return union;
+  }
+
+  public void saveState(UUID areaId, MergeInputs inputs, Geometry includeUnion) {
+    if (areaId == null) {
+      return;
+    }
+    try {
+      mergeStateRepository.save(toState(areaId, inputs, includeUnion));
+    } catch (Exception ex) {
+      // The next merge of this area falls back to a full rebuild
+      log.warn("Polygon - Error while saving merge state {} : {}", areaId, ex.getMessage());
+      deleteState(areaId);
+    }
+  }
+
+  /**
+   * Saves the states of a batch of merges in one bulk write. Areas left with nothing to include lose their state;
+   * failed merges keep the previous one.
+   */
+  public void saveStates(List<MergeResult> results) {
+    BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MergeState.class);
+    int count = 0;
+    for (MergeResult result : results) {
+      UUID areaId = result.area().getId();
+      if (areaId == null) {
+        continue;
+      }
+      if (result.includeGeometry() != null) {
+        operations.replaceOne(Query.query(Criteria.where("_id").is(areaId)),
+            toState(areaId, result.inputs(), result.includeGeometry()), FindAndReplaceOptions.options().upsert());
+        count++;
+      } else if (result.geoData() == null) {
+        operations.remove(Query.query(Criteria.where("_id").is(areaId)));
+        count++;
+      }
+    }
+    if (count == 0) {
+      return;
+    }
+    try {
+      operations.execute();
+    } catch (Exception ex) {
+      log.warn("Polygon - Error while saving {} merge states : {}", count, ex.getMessage());
+    }
+  }
+
+  private MergeState toState(UUID areaId, MergeInputs inputs, Geometry includeUnion) {
+    MergeState state = new MergeState();
+    state.setAreaId(areaId);
+    state.setInputs(inputs);
+    state.setIncludeUnion(new WKBWriter(2).write(includeUnion));
+    state.setPrecisionScale(GeometryConfig.PRECISION_SCALE);
+    state.setUpdatedAt(Instant.now());
+    return state;
+  }
+
+  public void deleteState(UUID areaId) {
+    if (areaId == null) {
+      return;
+    }
+    try {
+      mergeStateRepository.deleteById(areaId);
+    } catch (Exception ex) {
+      log.warn("Polygon - Error while deleting merge state {} : {}", areaId, ex.getMessage());
+    }
+  }
+
+  private Optional<Geometry> incrementalUnion(MergeState state, MergeInputs inputs, MissingCodes missing) {
+    MergeInputs previous = state.getInputs();
+    // Unions stored at another precision would be rounded onto this grid when read and may no longer be valid
+    if (previous == null || state.getIncludeUnion() == null || state.getPrecisionScale() != GeometryConfig.PRECISION_SCALE
+        || !previous.includesNotIn(inputs).isEmpty()) {
+      return Optional.empty();
+    }
+    Map<BoundaryType, List<String>> added = inputs.includesNotIn(previous);
+    int addedCount = added.values().stream().mapToInt(List::size).sum();
+    if (addedCount > maxDelta * Math.max(1, inputs.includeCount())) {
+      return Optional.empty();
+    }
+    Geometry union;
+    try {
+      union = new WKBReader(geometryFactory).read(state.getIncludeUnion());
+    } catch (ParseException ex) {
+      log.warn("Polygon - Unreadable merge state {} : {}", state.getAreaId(), ex.getMessage());
+      return Optional.empty();
+    }
+    if (addedCount > 0) {
+      Geometry addedUnion = boundaryService.unionBoundaries(added, SubUnionCache.disabled(), missing);
+      union = PrecisionOverlay.union(union, addedUnion, geometryFactory.getPrecisionModel());
+    }
+    log.info("Polygon - Incremental merge {}, {} boundaries added", state.getAreaId(), addedCount);
+    return Optional.of(union);
+  }
+}
@@ -0,0 +1,207 @@
+package com.trimble.area.geojson.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.trimble.area.geojson.metrics.GeoMetrics;
+import com.trimble.area.geojson.model.Area;
+import com.trimble.area.geojson.model.GeoData;
+import com.trimble.area.geojson.model.MergeJob;
+import com.trimble.area.geojson.model.MergeJobStatus;
+import com.trimble.area.geojson.model.MergePriority;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Runs merges in the background. Jobs wait in a bounded priority queue, interactive ahead of bulk and otherwise in
+ * submission order, and are taken by a fixed pool of worker threads. Submitting an area that still has a queued job
+ * replaces that job. Jobs of one area never run at once: a job taken while an older one of its area is running waits
+ * for it, so an older definition cannot overwrite a newer polygon. Finished jobs are kept for
+ * {@code geo.merge.jobs.retention} so their status can be polled.
+ */
+@Slf4j
+@Service
+public class MergeJobService {
+
+  private final GeoJsonService geoJsonService;
+  private final PriorityBlockingQueue<MergeJob> queue = new PriorityBlockingQueue<>(64,
+      Comparator.comparing(MergeJob::getPriority).thenComparingLong(MergeJob::getSequence));
+  private final Map<UUID, MergeJob> jobs = new ConcurrentHashMap<>();
+  private final Map<UUID, MergeJob> queuedByArea = new ConcurrentHashMap<>();
+  private final Map<UUID, MergeJob> latestByArea = new ConcurrentHashMap<>();
+  // Guarded by the queue lock: the running job of each area, and the job waiting for it to finish
+  private final Map<UUID, MergeJob> runningByArea = new HashMap<>();
+  private final Map<UUID, MergeJob> waitingByArea = new HashMap<>();
+  private final AtomicLong sequence = new AtomicLong();
+  private final AtomicLong lastEviction = new AtomicLong();
+  private final List<Thread> workers = new ArrayList<>();
+  private final int capacity;
+  private final int workerCount;
+  private final Duration retention;
+
+  public MergeJobService(GeoJsonService geoJsonService, GeoMetrics geoMetrics,
+                         @Value("${geo.merge.jobs.capacity:10000}") int capacity,
+                         @Value("${geo.merge.jobs.workers:0}") int workers,
+                         @Value("${geo.merge.jobs.retention:1h}") Duration retention) {
+    this.geoJsonService = geoJsonService;
+    this.capacity = capacity;
+    this.workerCount = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+    this.retention = retention;
+    geoMetrics.gauge("geo.merge.jobs.queued", "Merge jobs waiting for a worker", queue, PriorityBlockingQueue::size);
+  }
+
+  @PostConstruct
+  public void start() {
+    for (int i = 0; i < workerCount; i++) {
+      Thread worker = new Thread(this::work, "merge-worker-" + i);
+      worker.setDaemon(true);
+      worker.start();
+      workers.add(worker);
+    }
+  }
+
+  @PreDestroy
+  public void stop() {
+    workers.forEach(Thread::interrupt);
+  }
+
+  public MergeJob submit(Area area, MergePriority priority) {
+    MergeJob job = new MergeJob();
+    job.setId(UUID.randomUUID());
+    job.setAreaId(area.getId());
+    job.setArea(area);
+    job.setPriority(Objects.requireNonNullElse(priority, MergePriority.INTERACTIVE));
+    job.setStatus(MergeJobStatus.QUEUED);
+    job.setSubmittedAt(Instant.now());
+    job.setSequence(sequence.incrementAndGet());
+    evictFinished();
+    synchronized (queue) {
+      MergeJob replaced = area.getId() != null ? queuedByArea.get(area.getId()) : null;
+      if (replaced != null && (queue.remove(replaced) || waitingByArea.remove(area.getId(), replaced))) {
+        finish(replaced, MergeJobStatus.SUPERSEDED, null, "Replaced by job " + job.getId());
+      } else if (queue.size() + waitingByArea.size() >= capacity) {
+        throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Merge queue is full");
+      }
+      jobs.put(job.getId(), job);
+      if (area.getId() != null) {
+        queuedByArea.put(area.getId(), job);
+        latestByArea.put(area.getId(), job);
+      }
+      queue.add(job);
+    }
+    return job;
+  }
+
+  public MergeJob getJob(UUID jobId) {
+    return jobs.get(jobId);
+  }
+
+  public MergeJob getLatestJob(UUID areaId) {
+    return latestByArea.get(areaId);
+  }
+
+  private void work() {
+    while (!Thread.currentThread().isInterrupted()) {
+      MergeJob job;
+      try {
+        job = queue.take();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      if (!startRunning(job)) {
+        continue;
+      }
+      job.setStatus(MergeJobStatus.RUNNING);
+      job.setStartedAt(Instant.now());
+      try {
+        GeoData geoData = geoJsonService.mergePolygon(job.getArea());
+        if (geoData != null && geoData.getErrorMessage() != null) {
+          finish(job, MergeJobStatus.FAILED, geoData.getId(), geoData.getErrorMessage());
+        } else {
+          finish(job, MergeJobStatus.COMPLETED, geoData != null ? geoData.getId() : null, null);
+        }
+      } catch (Exception ex) {
+        log.error("Polygon - Merge job {} failed {}", job.getId(), ex.getMessage(), ex);
+        finish(job, MergeJobStatus.FAILED, null, ex.getMessage());
+      } finally {
+        stopRunning(job);
+      }
+    }
+  }
+
+  /**
+   * Marks the job as running, or parks it until the running job of its area finishes. A parked job still counts as
+   * queued, so a newer submission for the area replaces it.
+   */
+  private boolean startRunning(MergeJob job) {
+    if (job.getAreaId() == null) {
+      return true;
+    }
+    synchronized (queue) {
+      if (runningByArea.containsKey(job.getAreaId())) {
+        // A job taken while it was being replaced can meet its successor here; only the newer one waits
+        MergeJob waiting = waitingByArea.get(job.getAreaId());
+        if (waiting == null || waiting.getSequence() < job.getSequence()) {
+          waitingByArea.put(job.getAreaId(), job);
+          if (waiting != null) {
+            finish(waiting, MergeJobStatus.SUPERSEDED, null, "Replaced by job " + job.getId());
+          }
+        } else {
+          finish(job, MergeJobStatus.SUPERSEDED, null, "Replaced by job " + waiting.getId());
+        }
+        return false;
+      }
+      queuedByArea.remove(job.getAreaId(), job);
+      runningByArea.put(job.getAreaId(), job);
+      return true;
+    }
+  }
+
+  private void stopRunning(MergeJob job) {
+    if (job.getAreaId() == null) {
+      return;
+    }
+    synchronized (queue) {
+      runningByArea.remove(job.getAreaId(), job);
+      MergeJob waiting = waitingByArea.remove(job.getAreaId());
+      if (waiting != null) {
+        queue.add(waiting);
+      }
+    }
+  }
+
+  private void finish(MergeJob job, MergeJobStatus status, UUID geoDataId, String errorMessage) {
+    job.setGeoDataId(geoDataId);
+    job.setErrorMessage(errorMessage);
+    job.setFinishedAt(Instant.now());
+    job.setArea(null);
+    job.setStatus(status);
+  }
+
+  private void evictFinished() {
+    long now = System.currentTimeMillis();
+    long last = lastEviction.get();
+    if (now - last < 60_000 || !lastEviction.compareAndSet(last, now)) {
+      return;
+    }
+    Instant cutoff = Instant.now().minus(retention);
+    jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+    latestByArea.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+  }
+}
@@ -0,0 +1,234 @@
+package com.trimble.area.geojson.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.trimble.area.geojson.boundary.BaseLayerProvider;
+import com.trimble.area.geojson.model.Area;
+import com.trimble.area.geojson.model.BoundaryType;
+import com.trimble.area.geojson.model.MergeInputs;
+import com.trimble.area.geojson.postal.PostalCodeSet;
+import com.trimble.area.geojson.postal.PostalIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.CollectionUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns the countries, states, counties, cities and postal codes of an {@link Area} into the boundary codes to union
+ * and subtract.
+ * Included states and ZIP codes that make up exactly the members of a published base layer are replaced by that
+ * layer, so a whole country or ZIP prefix costs one boundary instead of dozens or hundreds.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MergePlanner {
+
+  private static final Set<String> usStates =
+      Set.of("AL", "AK", "AZ", "AR", "CA", "CO", "CT", "DE", "DC", "FL", "GA", "HI", "ID", "IL", "IN", "IA", "KS", "KY", "LA", "ME", "MD",
+          "MA", "MI", "MN", "MS", "MO", "MT", "NE", "NV", "NH", "NJ", "NM", "NY", "NC", "ND", "OH", "OK", "OR", "PA", "RI", "SC", "SD",
+          "TN", "TX", "UT", "VT", "VA", "WA", "WV", "WI", "WY");
+  private static final Set<String> caStates = Set.of("AB", "BC", "MB", "NB", "NL", "NS", "ON", "PE", "QC", "SK", "NT", "NU", "YT");
+  private final PostalIndex postalIndex;
+  private final BaseLayerProvider baseLayerProvider;
+  @Value("${geo.boundary.city.enabled:false}")
+  private boolean cityEnabled;
+
+  public MergeInputs plan(Area area) {
+    MergeInputs inputs = new MergeInputs();
+    Set<String> layers = new HashSet<>();
+    Set<String> states = processStatesCountries(area.getStates(), area.getCountries());
+    if (!baseLayerProvider.isEmpty()) {
+      useCountryLayers(states, layers);
+    }
+    inputs.setIncludes(BoundaryType.STATE, states);
+    processPostals(area.getPostalRanges(), area.getPostalCodes(), inputs, layers);
+    processCodes(BoundaryType.COUNTY, area.getCounties(), county -> countyCode(county.getCode()), inputs);
+    if (cityEnabled) {
+      processCodes(BoundaryType.CITY, area.getCities(), MergePlanner::cityCode, inputs);
+    } else if (CollectionUtils.isNotEmpty(area.getCities())) {
+      // PC*MILER has no confirmed city endpoint; cities are merged only once local city sources are configured
+      log.warn("Polygon - Ignoring the {} cities of area {}, city boundaries are disabled", area.getCities().size(),
+          area.getId());
+    }
+    inputs.setIncludes(BoundaryType.LAYER, layers);
+    return inputs;
+  }
+
+  /**
+   * Like postal codes, excluded counties and cities are subtracted, and codes that are both included and excluded are
+   * only subtracted. Counties without a 5-digit FIPS code and cities without a name and a US or CA state are skipped.
+   */
+  private <T extends Area.GeoInclude> void processCodes(BoundaryType type, List<T> entries, Function<T, String> codeOf,
+                                                       MergeInputs inputs) {
+    if (CollectionUtils.isEmpty(entries)) {
+      return;
+    }
+    Set<String> include = new HashSet<>();
+    Set<String> exclude = new HashSet<>();
+    for (T entry : entries) {
+      String code = codeOf.apply(entry);
+      if (code == null) {
+        log.warn("Polygon - Skipping invalid {} {}", type, entry);
+      } else if (entry.getInclude()) {
+        include.add(code);
+      } else {
+        exclude.add(code);
+      }
+    }
+    include.removeAll(exclude);
+    inputs.setIncludes(type, include);
+    inputs.setExcludes(type, exclude);
+  }
+
+  private static String countyCode(String code) {
+    if (code == null || code.trim().length() != 5 || !code.trim().chars().allMatch(Character::isDigit)) {
+      return null;
+    }
+    return code.trim();
+  }
+
+  private static String cityCode(Area.City city) {
+    if (city.getName() == null || city.getName().isBlank() || city.getState() == null || city.getState().getCode() == null
+        || city.getCountry() == null || city.getCountry().getCode() == null) {
+      return null;
+    }
+    String state = city.getState().getCode().trim().toUpperCase(Locale.ROOT);
+    if (!countryStates(city.getCountry().getCode().trim().toUpperCase(Locale.ROOT)).contains(state)) {
+      return null;
+    }
+    return city.getName().trim().toUpperCase(Locale.ROOT) + "|" + state;
+  }
+
+  /**
+   * States of a country, empty for countries whose states are not known.
+   */
+  static Set<String> countryStates(String country) {
+    return "US".equals(country) ? usStates : "CA".equals(country) ? caStates : Set.of();
+  }
+
+  private void useCountryLayers(Set<String> states, Set<String> layers) {
+    for (String country : List.of("US", "CA")) {
+      BaseLayerProvider.Layer layer = baseLayerProvider.get(BaseLayerService.countryId(country));
+      if (layer != null && states.containsAll(layer.members())) {
+        layer.members().forEach(states::remove);
+        layers.add(layer.code());
+      }
+    }
+  }
+
+  /**
+   * Replaces every 3-digit prefix whose included codes are exactly the members of its layer.
+   */
+  private PostalCodeSet useZip3Layers(PostalCodeSet include, Set<String> layers) {
+    if (include.isEmpty() || baseLayerProvider.isEmpty()) {
+      return include;
+    }
+    PostalCodeSet.Builder covered = PostalCodeSet.builder();
+    List<String> prefixLayers = new ArrayList<>();
+    for (int prefix = 0; prefix < 1000; prefix++) {
+      BaseLayerProvider.Layer layer = baseLayerProvider.get(BaseLayerService.zip3Id(prefix));
+      if (layer == null) {
+        continue;
+      }
+      PostalCodeSet codes = include.subSet(prefix * 100, prefix * 100 + 99);
+      if (!codes.isEmpty() && codes.size() == layer.members().size() && codes.toCodes().equals(layer.members())) {
+        covered.add(prefix * 100, prefix * 100 + 99);
+        prefixLayers.add(layer.code());
+      }
+    }
+    if (prefixLayers.isEmpty()) {
+      return include;
+    }
+    layers.addAll(prefixLayers);
+    return include.difference(covered.build());
+  }
+
+  private void processPostals(List<Area.PostalRange> postalRanges, List<Area.PostalCode> postalCodes, MergeInputs inputs,
+                              Set<String> layers) {
+    if (CollectionUtils.isEmpty(postalRanges) && CollectionUtils.isEmpty(postalCodes)) {
+      return;
+    }
+    PostalCodeSet.Builder includePostal = PostalCodeSet.builder();
+    PostalCodeSet.Builder excludePostal = PostalCodeSet.builder();
+
+    postalRanges.stream()
+        .filter(postal -> "US".equalsIgnoreCase(postal.getCountry().getCode()))
+        .forEach(postal -> {
+          int start = PostalCodeSet.parse(postal.getStartRange());
+          int end = PostalCodeSet.parse(postal.getEndRange());
+          if (start < 0 || end < 0) {
+            log.warn("Polygon - Skipping invalid postal range {} - {}", postal.getStartRange(), postal.getEndRange());
+            return;
+          }
+          if (postal.getInclude()) {
+            includePostal.add(start, end);
+          } else {
+            excludePostal.add(start, end);
+          }
+        });
+
+    postalCodes.stream()
+        .filter(postal -> "US".equalsIgnoreCase(postal.getCountry().getCode()))
+        .forEach(postal -> {
+          int code = PostalCodeSet.parse(postal.getCode());
+          if (code < 0) {
+            log.warn("Polygon - Skipping invalid postal code {}", postal.getCode());
+          } else if (postal.getInclude()) {
+            includePostal.add(code);
+          } else {
+            excludePostal.add(code);
+          }
+        });
+
+    // Codes that are both included and excluded are only subtracted, never unioned
+    PostalCodeSet exclude = postalIndex.retainKnown(excludePostal.build());
+    PostalCodeSet include = useZip3Layers(postalIndex.retainKnown(includePostal.build()).difference(exclude), layers);
+    inputs.setIncludes(BoundaryType.POSTAL, new HashSet<>(include.toCodes()));
+    inputs.setExcludes(BoundaryType.POSTAL, new HashSet<>(exclude.toCodes()));
+  }
+
+  /**
+   * Excluded states are only removed from the included ones; their outlines are not subtracted.
+   */
+  private Set<String> processStatesCountries(List<Area.State> states, List<Area.Country> countries) {
+    Set<String> includeStates = new HashSet<>();
+    Set<String> excludeStates = new HashSet<>();
+
+    if (CollectionUtils.isNotEmpty(countries)) {
+      for (Area.Country country : countries) {
+        String code = country.getCode().toUpperCase();
+        Set<String> relevantStates = countryStates(code);
+        if (country.getInclude()) {
+          includeStates.addAll(relevantStates);
+        } /*else {
+          // Skipping Country exclusion
+          excludeStates.addAll(relevantStates);
+        }*/
+      }
+    }
+
+    if (CollectionUtils.isNotEmpty(states)) {
+      for (Area.State state : states) {
+        String country = state.getCountry().getCode().toUpperCase();
+        if ("US".equals(country) || "CA".equals(country)) {
+          String stateCode = state.getCode();
+          if (state.getInclude()) {
+            includeStates.add(stateCode);
+          } else {
+            excludeStates.add(stateCode);
+          }
+        }
+      }
+    }
+
+    includeStates.removeAll(excludeStates);
+    return includeStates;
+  }
+}
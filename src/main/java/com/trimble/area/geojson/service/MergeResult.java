@@ -0,0 +1,18 @@
+package com.trimble.area.geojson.service;
+
+import java.util.List;
+
+import com.trimble.area.geojson.model.Area;
+import com.trimble.area.geojson.model.GeoData;
+import com.trimble.area.geojson.model.GeoDataLevel;
+import com.trimble.area.geojson.model.MergeInputs;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * Outcome of merging one area before it is persisted. {@code geoData} is null when the area has nothing to include,
+ * and {@code includeGeometry} is null unless the merge succeeded with every include boundary. {@code levels} are the
+ * simplified versions of the merged geometry, empty when it has none.
+ */
+public record MergeResult(Area area, MergeInputs inputs, Geometry includeGeometry, GeoData geoData,
+                          List<GeoDataLevel> levels) {
+}
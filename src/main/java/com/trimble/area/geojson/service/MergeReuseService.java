@@ -0,0 +1,104 @@
+package com.trimble.area.geojson.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.trimble.area.geojson.config.GeometryConfig;
+import com.trimble.area.geojson.metrics.GeoMetrics;
+import com.trimble.area.geojson.model.BoundaryType;
+import com.trimble.area.geojson.model.GeoData;
+import com.trimble.area.geojson.model.MergeInputs;
+import io.micrometer.core.instrument.Counter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+/**
+ * Finds stored polygons that can be reused for an area with the same definition. Areas are compared by the content
+ * hash of their normalized {@link MergeInputs}, in which countries are already expanded to states and postal ranges to
+ * codes, so independently defined but identical areas share a hash. Only complete polygons younger than
+ * {@code geo.merge.reuse.max-age} are reused, so boundary updates from the vendor still reach every area.
+ */
+@Slf4j
+@Service
+public class MergeReuseService {
+
+  // Part of the hash: bump it when a change to the merge makes stored polygons differ for the same inputs
+  private static final String HASH_VERSION = "1";
+
+  private final MongoTemplate mongoTemplate;
+  private final Counter reused;
+  private final boolean enabled;
+  private final Duration maxAge;
+
+  public MergeReuseService(MongoTemplate mongoTemplate, GeoMetrics geoMetrics,
+                           @Value("${geo.merge.reuse.enabled:true}") boolean enabled,
+                           @Value("${geo.merge.reuse.max-age:24h}") Duration maxAge) {
+    this.mongoTemplate = mongoTemplate;
+    this.enabled = enabled;
+    this.maxAge = maxAge;
+    this.reused = geoMetrics.counter("geo.merge.reused",
+        "Merges answered with the stored polygon of an identical area definition");
+  }
+
+  /**
+   * SHA-256 of the merge inputs and of the precision the polygons are built at, as 64 hex characters.
+   */
+  public static String hash(MergeInputs inputs) {
+    StringBuilder canonical = new StringBuilder("v").append(HASH_VERSION)
+        .append(";scale=").append(GeometryConfig.PRECISION_SCALE);
+    append(canonical, "include", inputs.getInclude());
+    append(canonical, "exclude", inputs.getExclude());
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  /**
+   * The most recent complete polygon merged from inputs with this hash, if reuse is enabled and there is one.
+   */
+  public Optional<GeoData> find(String hash) {
+    if (!enabled) {
+      return Optional.empty();
+    }
+    Query query = Query.query(Criteria.where("geometryHash").is(hash)
+            .and("geometry").ne(null)
+            .and("errorMessage").is(null)
+            .and("missingCodes").is(null)
+            .and("createdAtDateTime").gte(Instant.now().minus(maxAge)))
+        .with(Sort.by(Sort.Direction.DESC, "createdAtDateTime"));
+    try {
+      Optional<GeoData> source = Optional.ofNullable(mongoTemplate.findOne(query, GeoData.class));
+      source.ifPresent(polygon -> reused.increment());
+      return source;
+    } catch (Exception ex) {
+      log.warn("Polygon - Error while looking up a reusable polygon {} : {}", hash, ex.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  private static void append(StringBuilder canonical, String side, Map<BoundaryType, List<String>> codes) {
+    canonical.append(';').append(side);
+    // Codes are sorted by MergeInputs; types are iterated in enum order
+    for (BoundaryType type : BoundaryType.values()) {
+      List<String> typeCodes = codes.get(type);
+      if (typeCodes != null && !typeCodes.isEmpty()) {
+        canonical.append(';').append(type.name()).append('=').append(String.join(",", typeCodes));
+      }
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package com.trimble.area.geojson.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.trimble.area.geojson.metrics.GeoMetrics;
+
+/**
+ * Wall-clock time of the stages of one merge, in the order the stages ran. Each stage is also recorded as a
+ * {@code geo.merge.stage} timer. A merge runs on a single thread, so this is not thread-safe.
+ */
+final class MergeStages {
+
+  private final GeoMetrics geoMetrics;
+  private final long startTime = System.nanoTime();
+  private final Map<String, Long> nanos = new LinkedHashMap<>();
+
+  MergeStages(GeoMetrics geoMetrics) {
+    this.geoMetrics = geoMetrics;
+  }
+
+  <T> T run(String stage, Supplier<T> work) {
+    long stageStart = System.nanoTime();
+    try {
+      return work.get();
+    } finally {
+      long elapsed = System.nanoTime() - stageStart;
+      nanos.merge(stage, elapsed, Long::sum);
+      geoMetrics.recordStage(stage, elapsed);
+    }
+  }
+
+  /**
+   * Milliseconds per stage.
+   */
+  Map<String, Long> durations() {
+    Map<String, Long> durations = new LinkedHashMap<>();
+    nanos.forEach((stage, elapsed) -> durations.put(stage, TimeUnit.NANOSECONDS.toMillis(elapsed)));
+    return durations;
+  }
+
+  long totalMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+  }
+}
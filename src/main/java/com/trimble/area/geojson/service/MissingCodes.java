@@ -0,0 +1,42 @@
+package com.trimble.area.geojson.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.trimble.area.geojson.model.BoundaryType;
+
+/**
+ * Boundary codes of one merge whose lookup failed, so the merged geometry was built without them. Codes the providers
+ * answered as unknown are not missing; they are empty boundaries.
+ */
+public class MissingCodes {
+
+  private final Map<BoundaryType, Set<String>> codes = new EnumMap<>(BoundaryType.class);
+
+  public void addAll(BoundaryType type, Collection<String> missing) {
+    if (!missing.isEmpty()) {
+      codes.computeIfAbsent(type, key -> new TreeSet<>()).addAll(missing);
+    }
+  }
+
+  public boolean isEmpty() {
+    return codes.isEmpty();
+  }
+
+  /**
+   * Sorted codes per boundary type, or null when nothing is missing.
+   */
+  public Map<BoundaryType, List<String>> toMap() {
+    if (codes.isEmpty()) {
+      return null;
+    }
+    Map<BoundaryType, List<String>> map = new EnumMap<>(BoundaryType.class);
+    codes.forEach((type, typeCodes) -> map.put(type, new ArrayList<>(typeCodes)));
+    return map;
+  }
+}
@@ -0,0 +1,35 @@
+package com.trimble.area.geojson.service;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.trimble.area.geojson.geometry.GeoJsonGeometryWriter;
+import com.trimble.area.geojson.geometry.ShapeCodec;
+import org.bson.BsonReader;
+import org.bson.RawBsonDocument;
+
+/**
+ * A stored geometry as read for a response, with the version of the polygon it was read from: either a GeoJSON
+ * document as stored or the bytes of a {@link ShapeCodec} shape, the other one being null. Geometry and version come
+ * from the same document, so an ETag built from the version always names the geometry sent with it.
+ */
+public record StoredGeometry(long version, RawBsonDocument geoJson, byte[] shape) {
+
+  public StoredGeometry(long version, RawBsonDocument geoJson) {
+    this(version, geoJson, null);
+  }
+
+  /**
+   * Writes the geometry as a GeoJSON geometry object, transcoding the stored BSON or decoding the shape as it is
+   * written, without building a geometry.
+   */
+  public void write(JsonGenerator generator) throws IOException {
+    if (shape != null) {
+      ShapeCodec.writeGeoJson(shape, generator);
+      return;
+    }
+    try (BsonReader reader = geoJson.asBsonReader()) {
+      GeoJsonGeometryWriter.transcode(reader, generator);
+    }
+  }
+}
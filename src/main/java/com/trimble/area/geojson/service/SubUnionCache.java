@@ -0,0 +1,71 @@
+package com.trimble.area.geojson.service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import com.trimble.area.geojson.model.BoundaryType;
+import com.trimble.area.geojson.model.MergeInputs;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * Shares the union of a boundary code list between the merges of one bulk window. Only lists used by more than one
+ * area of the window are kept; every other union is computed and dropped as usual.
+ */
+public class SubUnionCache {
+
+  private static final SubUnionCache DISABLED = new SubUnionCache(Set.of());
+  private final Set<Key> shared;
+  private final Map<Key, CompletableFuture<Geometry>> unions = new ConcurrentHashMap<>();
+
+  private SubUnionCache(Set<Key> shared) {
+    this.shared = shared;
+  }
+
+  public static SubUnionCache disabled() {
+    return DISABLED;
+  }
+
+  public static SubUnionCache shared(List<MergeInputs> inputs) {
+    Map<Key, Integer> counts = new HashMap<>();
+    for (MergeInputs input : inputs) {
+      input.getInclude().forEach((type, codes) -> counts.merge(new Key(type, codes), 1, Integer::sum));
+      input.getExclude().forEach((type, codes) -> counts.merge(new Key(type, codes), 1, Integer::sum));
+    }
+    Set<Key> shared = new HashSet<>();
+    counts.forEach((key, count) -> {
+      if (count > 1) {
+        shared.add(key);
+      }
+    });
+    return new SubUnionCache(shared);
+  }
+
+  public Geometry union(BoundaryType type, List<String> codes, Supplier<Geometry> union) {
+    Key key = new Key(type, codes);
+    if (!shared.contains(key)) {
+      return union.get();
+    }
+    CompletableFuture<Geometry> future = new CompletableFuture<>();
+    CompletableFuture<Geometry> existing = unions.putIfAbsent(key, future);
+    if (existing != null) {
+      return existing.join();
+    }
+    try {
+      future.complete(union.get());
+    } catch (RuntimeException ex) {
+      unions.remove(key, future);
+      future.completeExceptionally(ex);
+      throw ex;
+    }
+    return future.join();
+  }
+
+  private record Key(BoundaryType type, List<String> codes) {
+  }
+}
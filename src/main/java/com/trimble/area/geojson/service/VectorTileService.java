@@ -0,0 +1,267 @@
+package com.trimble.area.geojson.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.trimble.area.geojson.cache.TileCache;
+import com.trimble.area.geojson.geometry.VectorTileEncoder;
+import com.trimble.area.geojson.model.GeoData;
+import com.trimble.area.geojson.model.GeoDataLevel;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFilter;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.operation.overlayng.OverlayNG;
+import org.locationtech.jts.operation.overlayng.OverlayNGRobust;
+import org.locationtech.jts.precision.GeometryPrecisionReducer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Builds Mapbox Vector Tiles of all merged areas intersecting a web mercator tile. Each area is drawn from the coarsest
+ * simplified level that is accurate at the tile's zoom, clipped to the tile plus a buffer in lon/lat, projected to
+ * tile coordinates and snapped to the integer grid. Encoded tiles are kept in the {@link TileCache}.
+ */
+@Slf4j
+@Service
+public class VectorTileService {
+
+  private static final int MAX_ZOOM = 22;
+  private static final double MAX_LATITUDE = 85.05112878;
+  /**
+   * Tiles at lower zooms span more than a hemisphere, which $geoIntersects cannot take as a polygon.
+   */
+  private static final int MIN_SPATIAL_QUERY_ZOOM = 2;
+
+  private final MongoTemplate mongoTemplate;
+  private final GeometryLevelService geometryLevelService;
+  private final TileCache tileCache;
+  private final GeoDataStore geoDataStore;
+  private final GeometryFactory geometryFactory;
+  private final int extent;
+  private final int buffer;
+
+  public VectorTileService(MongoTemplate mongoTemplate, GeometryLevelService geometryLevelService,
+                           TileCache tileCache, GeoDataStore geoDataStore, GeometryFactory geometryFactory,
+                           @Value("${geo.tiles.extent:4096}") int extent,
+                           @Value("${geo.tiles.buffer:64}") int buffer) {
+    this.mongoTemplate = mongoTemplate;
+    this.geometryLevelService = geometryLevelService;
+    this.tileCache = tileCache;
+    this.geoDataStore = geoDataStore;
+    this.geometryFactory = geometryFactory;
+    this.extent = extent;
+    this.buffer = buffer;
+  }
+
+  /**
+   * The encoded tile, or an empty array if no area intersects it.
+   */
+  public byte[] getTile(int z, int x, int y) {
+    if (z < 0 || z > MAX_ZOOM || x < 0 || y < 0 || x >= (1 << z) || y >= (1 << z)) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid tile " + z + "/" + x + "/" + y);
+    }
+    TileCache.Tile cached = tileCache.get(z, x, y);
+    if (cached != null) {
+      return cached.bytes();
+    }
+    long generation = tileCache.generation();
+    Envelope bounds = bounds(z, x, y, (double) buffer / extent);
+    Map<UUID, GeoData> polygons;
+    Map<UUID, Geometry> geometries;
+    if (z < MIN_SPATIAL_QUERY_ZOOM) {
+      polygons = new HashMap<>();
+      geometries = loadOverview(z, polygons);
+    } else {
+      polygons = findIntersecting(bounds);
+      geometries = loadGeometries(z, polygons);
+    }
+
+    VectorTileEncoder encoder = new VectorTileEncoder("areas", extent);
+    Set<UUID> areaIds = new HashSet<>();
+    Geometry clip = geometryFactory.toGeometry(bounds);
+    geometries.forEach((id, geometry) -> {
+      GeoData polygon = polygons.get(id);
+      Geometry clipped = bounds.contains(geometry.getEnvelopeInternal())
+          ? geometry
+          : OverlayNGRobust.overlay(geometry, clip, OverlayNG.INTERSECTION);
+      if (clipped.isEmpty()) {
+        return;
+      }
+      Map<String, String> properties = new HashMap<>();
+      properties.put("id", id.toString());
+      if (polygon.getAreaId() != null) {
+        properties.put("areaId", polygon.getAreaId().toString());
+      }
+      if (encoder.addFeature(toTile(clipped, z, x, y), properties) && polygon.getAreaId() != null) {
+        areaIds.add(polygon.getAreaId());
+      }
+    });
+    byte[] bytes = encoder.isEmpty() ? new byte[0] : encoder.encode();
+    log.info("Tile - {}/{}/{} with {} areas, {} bytes", z, x, y, areaIds.size(), bytes.length);
+    tileCache.put(z, x, y, new TileCache.Tile(bytes, bounds, areaIds), generation);
+    return bytes;
+  }
+
+  /**
+   * Large polygons only index a simplified geometry, so the query bounds grow by its tolerance to keep their edges.
+   */
+  private Map<UUID, GeoData> findIntersecting(Envelope bounds) {
+    double tolerance = geoDataStore.getIndexTolerance();
+    Envelope queryBounds = new Envelope(Math.max(-180, bounds.getMinX() - tolerance),
+        Math.min(180, bounds.getMaxX() + tolerance), bounds.getMinY() - tolerance, bounds.getMaxY() + tolerance);
+    Query query = new Query(Criteria.where("geometry").intersects(tilePolygon(queryBounds)));
+    query.fields().include("areaId");
+    Map<UUID, GeoData> polygons = new HashMap<>();
+    mongoTemplate.find(query, GeoData.class).forEach(polygon -> polygons.put(polygon.getId(), polygon));
+    return polygons;
+  }
+
+  /**
+   * Tiles below {@link #MIN_SPATIAL_QUERY_ZOOM} show every area, so they are drawn from the coarsest level of each
+   * polygon that has levels. Only the others, which are too small to have levels, are read from the polygons, and then
+   * only their stored GeoJSON, never their shapes.
+   */
+  private Map<UUID, Geometry> loadOverview(int z, Map<UUID, GeoData> polygons) {
+    Map<UUID, Geometry> geometries = new HashMap<>();
+    Double level = geometryLevelService.levelFor(geometryLevelService.toleranceForZoom(z));
+    if (level != null) {
+      for (GeoDataLevel coarsest : geometryLevelService.getCoarsestLevels(level)) {
+        if (coarsest.getGeometry() != null) {
+          GeoData polygon = new GeoData();
+          polygon.setId(coarsest.getGeoDataId());
+          polygon.setAreaId(coarsest.getAreaId());
+          polygons.put(polygon.getId(), polygon);
+          geometries.put(polygon.getId(), coarsest.getGeometry().getGeometry());
+        }
+      }
+    }
+    Query query = new Query(Criteria.where("geometry").exists(true).ne(null).and("_id").nin(geometries.keySet()));
+    query.fields().include("areaId", "geometry");
+    for (GeoData polygon : mongoTemplate.find(query, GeoData.class)) {
+      if (polygon.getGeometry() != null) {
+        polygons.put(polygon.getId(), polygon);
+        geometries.put(polygon.getId(), polygon.getGeometry().getGeometry());
+      }
+    }
+    return geometries;
+  }
+
+  /**
+   * Loads each polygon's coarsest level that is accurate at the zoom, and the full geometry of those without one.
+   */
+  private Map<UUID, Geometry> loadGeometries(int z, Map<UUID, GeoData> polygons) {
+    Map<UUID, Geometry> geometries = new HashMap<>();
+    if (polygons.isEmpty()) {
+      return geometries;
+    }
+    Double level = geometryLevelService.levelFor(geometryLevelService.toleranceForZoom(z));
+    if (level != null) {
+      Map<UUID, Double> chosen = new HashMap<>();
+      Query levelQuery = new Query(Criteria.where("geoDataId").in(polygons.keySet()).and("tolerance").lte(level));
+      for (GeoDataLevel candidate : mongoTemplate.find(levelQuery, GeoDataLevel.class)) {
+        Double previous = chosen.get(candidate.getGeoDataId());
+        if (candidate.getGeometry() != null && (previous == null || candidate.getTolerance() > previous)) {
+          chosen.put(candidate.getGeoDataId(), candidate.getTolerance());
+          geometries.put(candidate.getGeoDataId(), candidate.getGeometry().getGeometry());
+        }
+      }
+    }
+    List<UUID> full = new ArrayList<>(polygons.keySet());
+    full.removeAll(geometries.keySet());
+    if (!full.isEmpty()) {
+      Query fullQuery = new Query(Criteria.where("_id").in(full));
+      fullQuery.fields().include(GeoDataStore.GEOMETRY_FIELDS);
+      for (GeoData polygon : mongoTemplate.find(fullQuery, GeoData.class)) {
+        if (polygon.getGeometry() != null) {
+          geometries.put(polygon.getId(), polygon.getGeometry().getGeometry());
+        }
+      }
+    }
+    return geometries;
+  }
+
+  /**
+   * Projects a lon/lat geometry to web mercator tile coordinates and snaps it to the integer grid.
+   */
+  private Geometry toTile(Geometry geometry, int z, int x, int y) {
+    double scale = (double) (1 << z) * extent;
+    Geometry projected = geometry.copy();
+    projected.apply(new CoordinateSequenceFilter() {
+      @Override
+      public void filter(CoordinateSequence sequence, int i) {
+        sequence.setOrdinate(i, CoordinateSequence.X, mercatorX(sequence.getX(i)) * scale - (double) x * extent);
+        sequence.setOrdinate(i, CoordinateSequence.Y, mercatorY(sequence.getY(i)) * scale - (double) y * extent);
+      }
+
+      @Override
+      public boolean isDone() {
+        return false;
+      }
+
+      @Override
+      public boolean isGeometryChanged() {
+        return true;
+      }
+    });
+    return GeometryPrecisionReducer.reduce(projected, new PrecisionModel(1.0));
+  }
+
+  /**
+   * The lon/lat bounds of a tile grown by the given fraction of a tile on each side.
+   */
+  private static Envelope bounds(int z, int x, int y, double margin) {
+    double n = 1 << z;
+    return new Envelope(
+        Math.max(-180, (x - margin) / n * 360 - 180),
+        Math.min(180, (x + 1 + margin) / n * 360 - 180),
+        latitude((y + 1 + margin) / n),
+        latitude((y - margin) / n));
+  }
+
+  /**
+   * A tile polygon for $geoIntersects. Its edges are densified to at most one degree, so that the geodesic edges Mongo
+   * uses stay close to the parallels that bound a tile.
+   */
+  private static GeoJsonPolygon tilePolygon(Envelope bounds) {
+    List<Point> ring = new ArrayList<>();
+    int steps = (int) Math.ceil(bounds.getWidth());
+    for (int i = 0; i <= steps; i++) {
+      ring.add(new Point(bounds.getMinX() + bounds.getWidth() * i / Math.max(1, steps), bounds.getMinY()));
+    }
+    for (int i = 0; i <= steps; i++) {
+      ring.add(new Point(bounds.getMaxX() - bounds.getWidth() * i / Math.max(1, steps), bounds.getMaxY()));
+    }
+    ring.add(ring.get(0));
+    return new GeoJsonPolygon(ring);
+  }
+
+  private static double mercatorX(double longitude) {
+    return (longitude + 180) / 360;
+  }
+
+  private static double mercatorY(double latitude) {
+    double sin = Math.sin(Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude))));
+    return 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+  }
+
+  private static double latitude(double mercatorY) {
+    double clamped = Math.max(0, Math.min(1, mercatorY));
+    return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * clamped))));
+  }
+}
@@ -0,0 +1,54 @@
+package com.trimble.area.geojson.boundary;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trimble.area.geojson.config.GeometryConfig;
+import com.trimble.area.geojson.model.BoundaryType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class LocalBoundaryProviderTests {
+
+	private final GeometryFactory geometryFactory = new GeometryConfig().geometryFactory();
+
+	@TempDir
+	Path storeDir;
+
+	@Test
+	void servesProvincesOfTheBundledSource() {
+		LocalBoundaryProvider provider = provider();
+
+		Map<String, Geometry> boundaries = provider.getBoundaries(BoundaryType.STATE, List.of("AB", "TX"));
+
+		assertThat(boundaries).containsOnlyKeys("AB");
+		assertThat(boundaries.get("AB").isEmpty()).isFalse();
+		assertThat(provider.getStore(BoundaryType.STATE).codes()).hasSize(13);
+	}
+
+	@Test
+	void reopensTheCompiledStore() {
+		Geometry compiled = provider().getBoundaries(BoundaryType.STATE, List.of("BC")).get("BC");
+
+		Geometry reopened = provider().getBoundaries(BoundaryType.STATE, List.of("BC")).get("BC");
+
+		assertThat(reopened.equalsExact(compiled)).isTrue();
+	}
+
+	private LocalBoundaryProvider provider() {
+		LocalBoundaryProvider provider = new LocalBoundaryProvider(new ObjectMapper(), geometryFactory,
+				new DefaultResourceLoader());
+		ReflectionTestUtils.setField(provider, "sources", List.of("STATE=classpath:ca-states.json"));
+		ReflectionTestUtils.setField(provider, "storeDir", storeDir.toString());
+		provider.load();
+		return provider;
+	}
+}
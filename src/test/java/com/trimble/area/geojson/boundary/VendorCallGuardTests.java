@@ -0,0 +1,229 @@
+package com.trimble.area.geojson.boundary;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.trimble.area.geojson.client.PcMilerClient;
+import com.trimble.area.geojson.client.PcMilerClientConfig;
+import com.trimble.area.geojson.metrics.GeoMetrics;
+import com.trimble.area.geojson.model.MapsPolygon;
+import feign.Feign;
+import feign.FeignException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+
+class VendorCallGuardTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final GeoMetrics geoMetrics = new GeoMetrics(meterRegistry,
+			new DefaultListableBeanFactory().getBeanProvider(ObservationRegistry.class), true);
+	private final FetchScheduler fetchScheduler = new FetchScheduler(8, 8, geoMetrics);
+	private final ExecutorService serverExecutor = Executors.newCachedThreadPool();
+	private final AtomicInteger requests = new AtomicInteger();
+	private HttpServer server;
+
+	@AfterEach
+	void stop() {
+		if (server != null) {
+			server.stop(0);
+		}
+		serverExecutor.shutdownNow();
+		fetchScheduler.destroy();
+	}
+
+	@Test
+	void retriesServerErrors() throws Exception {
+		PcMilerClient client = stub(request -> request == 1 ? new Answer(503, "", 0) : ok("75001", 0));
+		VendorCallGuard guard = guard(3, 5, 100);
+
+		List<MapsPolygon> polygons = guard.call("zip", () -> client.getPostalCodePolygon("key", "75001"));
+
+		assertThat(polygons).extracting(MapsPolygon::getCode).containsExactly("75001");
+		assertThat(requests).hasValue(2);
+	}
+
+	@Test
+	void retriesReadTimeouts() throws Exception {
+		PcMilerClient client = stub(request -> ok("75001", request == 1 ? 3000 : 0));
+		VendorCallGuard guard = guard(3, 5, 100);
+
+		List<MapsPolygon> polygons = guard.call("zip", () -> client.getPostalCodePolygon("key", "75001"));
+
+		assertThat(polygons).extracting(MapsPolygon::getCode).containsExactly("75001");
+		assertThat(requests).hasValue(2);
+	}
+
+	@Test
+	void doesNotRetryClientErrors() {
+		PcMilerClient client = stub(request -> new Answer(400, "", 0));
+		VendorCallGuard guard = guard(3, 1, 100);
+
+		assertThatThrownBy(() -> guard.call("zip", () -> client.getPostalCodePolygon("key", "75001")))
+				.isInstanceOf(FeignException.BadRequest.class);
+		assertThat(requests).hasValue(1);
+		assertThat(guard.isOpen()).isFalse();
+	}
+
+	@Test
+	void failsFastWhileTheCircuitIsOpen() {
+		PcMilerClient client = stub(request -> new Answer(500, "", 0));
+		VendorCallGuard guard = guard(1, 2, 100);
+
+		for (int i = 0; i < 2; i++) {
+			assertThatThrownBy(() -> guard.call("zip", () -> client.getPostalCodePolygon("key", "75001")))
+					.isInstanceOf(FeignException.InternalServerError.class);
+		}
+		assertThatThrownBy(() -> guard.call("zip", () -> client.getPostalCodePolygon("key", "75001")))
+				.isInstanceOf(VendorCallGuard.CircuitOpenException.class);
+		assertThat(requests).hasValue(2);
+		assertThat(guard.isOpen()).isTrue();
+	}
+
+	@Test
+	void keepsTheCircuitOfEachEndpoint() throws Exception {
+		PcMilerClient client = stub(request -> request <= 2 ? new Answer(500, "", 0) : ok("TX", 0));
+		VendorCallGuard guard = guard(1, 2, 100);
+
+		for (int i = 0; i < 2; i++) {
+			assertThatThrownBy(() -> guard.call("zip", () -> client.getPostalCodePolygon("key", "75001")))
+					.isInstanceOf(FeignException.InternalServerError.class);
+		}
+		List<MapsPolygon> polygons = guard.call("state", () -> client.getStatesPolygon("key", "TX"));
+
+		assertThat(polygons).extracting(MapsPolygon::getCode).containsExactly("TX");
+		assertThat(guard.isOpen("zip")).isTrue();
+		assertThat(guard.isOpen("state")).isFalse();
+	}
+
+	@Test
+	void hedgesCallsSlowerThanRecentLatencies() throws Exception {
+		PcMilerClient client = stub(request -> request == 4 ? ok("slow", 1500) : ok("fast", 0));
+		VendorCallGuard guard = guard(1, 5, 3);
+		for (int i = 0; i < 3; i++) {
+			guard.call("zip", () -> client.getPostalCodePolygon("key", "75001"));
+		}
+
+		List<MapsPolygon> polygons = guard.call("zip", () -> client.getPostalCodePolygon("key", "75001"));
+
+		assertThat(polygons).extracting(MapsPolygon::getCode).containsExactly("fast");
+		assertThat(meterRegistry.counter("geo.fetch.hedged").count()).isEqualTo(1);
+	}
+
+	@Test
+	void cancelsTheLosingRequest() throws Exception {
+		VendorCallGuard guard = guard(1, 5, 3);
+		for (int i = 0; i < 3; i++) {
+			guard.call("zip", () -> "fast");
+		}
+		AtomicInteger calls = new AtomicInteger();
+		CountDownLatch interrupted = new CountDownLatch(1);
+
+		String result = guard.call("zip", () -> {
+			if (calls.incrementAndGet() == 1) {
+				try {
+					Thread.sleep(5000);
+				} catch (InterruptedException ex) {
+					interrupted.countDown();
+					throw ex;
+				}
+			}
+			return "fast";
+		});
+
+		assertThat(result).isEqualTo("fast");
+		assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	void doesNotHedgeBeyondTheBudget() throws Exception {
+		VendorCallGuard guard = guard(1, 5, 3, 0);
+		for (int i = 0; i < 3; i++) {
+			guard.call("zip", () -> "fast");
+		}
+		AtomicInteger calls = new AtomicInteger();
+
+		String result = guard.call("zip", () -> {
+			calls.incrementAndGet();
+			Thread.sleep(300);
+			return "slow";
+		});
+
+		assertThat(result).isEqualTo("slow");
+		assertThat(calls).hasValue(1);
+		assertThat(meterRegistry.counter("geo.fetch.hedged").count()).isZero();
+	}
+
+	private VendorCallGuard guard(int maxAttempts, int failureThreshold, int hedgeMinSamples) {
+		return guard(maxAttempts, failureThreshold, hedgeMinSamples, 1);
+	}
+
+	private VendorCallGuard guard(int maxAttempts, int failureThreshold, int hedgeMinSamples, double hedgeMaxRate) {
+		return new VendorCallGuard(fetchScheduler, geoMetrics, maxAttempts, Duration.ofMillis(1),
+				Duration.ofMillis(5), 0.95, Duration.ofMillis(100), hedgeMinSamples, hedgeMaxRate, failureThreshold,
+				Duration.ofMinutes(1));
+	}
+
+	private Answer ok(String code, long delayMillis) {
+		return new Answer(200, "[{\"Code\":\"" + code + "\",\"Polygon\":\"POINT (1 1)\"}]", delayMillis);
+	}
+
+	private PcMilerClient stub(IntFunction<Answer> answers) {
+		try {
+			server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		} catch (IOException ex) {
+			throw new IllegalStateException(ex);
+		}
+		server.setExecutor(serverExecutor);
+		server.createContext("/", exchange -> answer(exchange, answers.apply(requests.incrementAndGet())));
+		server.start();
+		PcMilerClientConfig config = new PcMilerClientConfig();
+		Duration readTimeout = Duration.ofSeconds(2);
+		return Feign.builder()
+				.client(config.pcMilerFeignClient(config.pcMilerOkHttpClient(4, Duration.ofMinutes(1), Duration.ofSeconds(1),
+						readTimeout, Duration.ofSeconds(5))))
+				.options(config.pcMilerRequestOptions(Duration.ofSeconds(1), readTimeout))
+				.retryer(config.pcMilerRetryer())
+				.contract(new SpringMvcContract())
+				.decoder((response, type) -> objectMapper.readValue(response.body().asInputStream(),
+						objectMapper.constructType(type)))
+				.target(PcMilerClient.class, "http://localhost:" + server.getAddress().getPort());
+	}
+
+	private void answer(HttpExchange exchange, Answer answer) throws IOException {
+		try {
+			Thread.sleep(answer.delayMillis());
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		byte[] body = answer.body().getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(answer.status(), body.length == 0 ? -1 : body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	private record Answer(int status, String body, long delayMillis) {
+	}
+}
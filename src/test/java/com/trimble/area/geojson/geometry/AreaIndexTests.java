@@ -0,0 +1,62 @@
+package com.trimble.area.geojson.geometry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.io.WKTReader;
+
+class AreaIndexTests {
+
+	private final WKTReader wktReader = new WKTReader(new GeometryFactory());
+	private final UUID square = UUID.randomUUID();
+	private final UUID donut = UUID.randomUUID();
+
+	@Test
+	void findsAreasContainingOrTouchingThePoint() throws Exception {
+		AreaIndex index = new AreaIndex(Runnable::run, 10);
+		index.load(Map.of(
+				square, polygon("POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0))"),
+				donut, polygon("POLYGON ((5 5, 20 5, 20 20, 5 20, 5 5), (6 6, 9 6, 9 9, 6 9, 6 6))")), Map.of());
+
+		assertThat(find(index, 2, 2)).containsExactly(square);
+		assertThat(find(index, 7, 7)).containsExactly(square);
+		assertThat(find(index, 10, 10)).containsExactlyInAnyOrder(square, donut);
+		assertThat(find(index, 30, 30)).isEmpty();
+	}
+
+	@Test
+	void changesAreVisibleBeforeAndAfterRebuilds() throws Exception {
+		AreaIndex index = new AreaIndex(Runnable::run, 1);
+		index.load(Map.of(square, polygon("POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0))")), Map.of());
+
+		index.put(square, polygon("POLYGON ((20 20, 30 20, 30 30, 20 30, 20 20))"), null);
+		assertThat(find(index, 2, 2)).isEmpty();
+		assertThat(find(index, 25, 25)).containsExactly(square);
+
+		// The second change exceeds the threshold and rebuilds the tree
+		index.put(donut, polygon("POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0))"), null);
+		index.remove(square);
+		assertThat(find(index, 25, 25)).isEmpty();
+		assertThat(find(index, 2, 2)).containsExactly(donut);
+		assertThat(index.size()).isEqualTo(1);
+		assertThat(index.vertexCount()).isEqualTo(5);
+	}
+
+	private Geometry polygon(String wkt) throws Exception {
+		return wktReader.read(wkt);
+	}
+
+	private List<UUID> find(AreaIndex index, double x, double y) {
+		List<UUID> found = new ArrayList<>();
+		index.findContaining(new Coordinate(x, y), found::add);
+		return found;
+	}
+}
@@ -0,0 +1,42 @@
+package com.trimble.area.geojson.geometry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.io.WKTReader;
+
+class CellCoveringTests {
+
+	private final WKTReader wktReader = new WKTReader(new GeometryFactory());
+	private final CellCoverer coverer = new CellCoverer(12, 256);
+
+	@Test
+	void ancestorsContainTheirDescendants() {
+		long leaf = CellCovering.leafId(-105.25, 39.75);
+		long[] ancestors = CellCovering.ancestorIds(-105.25, 39.75);
+
+		assertThat(ancestors[CellCovering.MAX_LEVEL]).isEqualTo(leaf);
+		for (int level = 0; level < CellCovering.MAX_LEVEL; level++) {
+			assertThat(CellCovering.containsCell(new long[] {ancestors[level]}, leaf)).isTrue();
+			assertThat(CellCovering.parentId(ancestors[level + 1], level)).isEqualTo(ancestors[level]);
+		}
+	}
+
+	@Test
+	void coveringSeparatesInteriorAndBoundaryCells() throws Exception {
+		Geometry polygon = wktReader.read("POLYGON ((-110 30, -90 30, -90 45, -110 45, -110 30), (-101 37, -99 37, -99 38, -101 38, -101 37))");
+
+		CellCovering covering = coverer.cover(polygon);
+
+		assertThat(covering.interiorCells()).isNotEmpty().isSorted();
+		assertThat(covering.boundaryCells()).isNotEmpty().isSorted();
+		assertThat(covering.interiorCells().length + covering.boundaryCells().length).isLessThanOrEqualTo(256);
+		assertThat(covering.locate(new Coordinate(-105, 35))).isEqualTo(CellCovering.Containment.INTERIOR);
+		assertThat(covering.locate(new Coordinate(-110, 40))).isEqualTo(CellCovering.Containment.BOUNDARY);
+		assertThat(covering.locate(new Coordinate(-100, 37.5))).isNotEqualTo(CellCovering.Containment.INTERIOR);
+		assertThat(covering.locate(new Coordinate(-80, 35))).isEqualTo(CellCovering.Containment.EXTERIOR);
+	}
+}
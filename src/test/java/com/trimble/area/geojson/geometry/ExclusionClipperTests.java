@@ -0,0 +1,50 @@
+package com.trimble.area.geojson.geometry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.io.WKTReader;
+
+class ExclusionClipperTests {
+
+	private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(1000), 4326);
+	private final WKTReader wktReader = new WKTReader(geometryFactory);
+	private final ExclusionClipper clipper = new ExclusionClipper(geometryFactory);
+
+	@Test
+	void interiorExclusionsBecomeHoles() throws Exception {
+		Geometry include = wktReader.read("MULTIPOLYGON (((0 0, 10 0, 10 10, 0 10, 0 0)), ((20 0, 21 0, 21 1, 20 1, 20 0)))");
+		Geometry exclude = wktReader.read("MULTIPOLYGON (((1 1, 2 1, 2 2, 1 2, 1 1)), ((5 5, 6 5, 6 6, 5 6, 5 5)))");
+
+		Geometry result = clipper.difference(include, exclude);
+
+		assertThat(result.isValid()).isTrue();
+		assertThat(result.getNumGeometries()).isEqualTo(2);
+		assertThat(result.getArea()).isEqualTo(99.0);
+		assertThat(result.equalsTopo(include.difference(exclude))).isTrue();
+	}
+
+	@Test
+	void exclusionsOnTheBoundaryAreSubtracted() throws Exception {
+		Geometry include = wktReader.read("POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0))");
+		Geometry exclude = wktReader.read("MULTIPOLYGON (((-1 -1, 2 -1, 2 2, -1 2, -1 -1)), ((5 5, 6 5, 6 6, 5 6, 5 5)))");
+
+		Geometry result = clipper.difference(include, exclude);
+
+		assertThat(result.isValid()).isTrue();
+		assertThat(result.getArea()).isEqualTo(95.0);
+		assertThat(result.equalsTopo(include.difference(exclude))).isTrue();
+	}
+
+	@Test
+	void disjointExclusionsLeaveTheIncludeUntouched() throws Exception {
+		Geometry include = wktReader.read("POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0))");
+		Geometry exclude = wktReader.read("POLYGON ((30 30, 31 30, 31 31, 30 31, 30 30))");
+
+		assertThat(clipper.difference(include, exclude)).isSameAs(include);
+	}
+
+}
@@ -0,0 +1,85 @@
+package com.trimble.area.geojson.geometry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.io.BasicOutputBuffer;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.io.WKTReader;
+
+class GeoJsonGeometryIoTests {
+
+	private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(1000), 4326);
+	private final WKTReader wktReader = new WKTReader(geometryFactory);
+	private final JsonFactory jsonFactory = new JsonFactory();
+
+	@Test
+	void writesGeoJsonFromTheCoordinateSequences() throws Exception {
+		Geometry polygon = wktReader.read("POLYGON ((0 0, 10 0, 10 10, 0 0))");
+
+		assertThat(toJson(polygon)).isEqualTo("{\"type\":\"Polygon\",\"coordinates\":[[[0.0,0.0],[10.0,0.0],[10.0,10.0],[0.0,0.0]]]}");
+	}
+
+	@Test
+	void jsonRoundTripKeepsEveryGeometryType() throws Exception {
+		for (String wkt : List.of(
+				"POINT (1.5 2.25)",
+				"LINESTRING (0 0, 1 1, 2 0)",
+				"MULTIPOINT ((0 0), (1 1))",
+				"MULTILINESTRING ((0 0, 1 1), (2 2, 3 3))",
+				"MULTIPOLYGON (((0 0, 10 0, 10 10, 0 10, 0 0), (1 1, 2 1, 2 2, 1 1)), ((20 0, 21 0, 21 1, 20 0)))",
+				"GEOMETRYCOLLECTION (POINT (1 1), POLYGON ((0 0, 1 0, 1 1, 0 0)))",
+				"POLYGON EMPTY")) {
+			Geometry geometry = wktReader.read(wkt);
+
+			try (JsonParser parser = jsonFactory.createParser(toJson(geometry))) {
+				parser.nextToken();
+				assertThat(GeoJsonGeometryReader.read(parser, geometryFactory).equalsExact(geometry)).as(wkt).isTrue();
+			}
+		}
+	}
+
+	@Test
+	void readerIgnoresMemberOrderAltitudeAndUnknownMembers() throws Exception {
+		String json = "{\"crs\":{\"type\":\"name\"},\"coordinates\":[[[0,0,5],[1,0,5],[1,1,5],[0,0,5]]],\"type\":\"Polygon\"}";
+
+		try (JsonParser parser = jsonFactory.createParser(json)) {
+			parser.nextToken();
+			assertThat(GeoJsonGeometryReader.read(parser, geometryFactory))
+					.isEqualTo(wktReader.read("POLYGON ((0 0, 1 0, 1 1, 0 0))"));
+		}
+	}
+
+	@Test
+	void bsonRoundTripAndDocumentReadMatch() throws Exception {
+		Geometry geometry = wktReader.read("MULTIPOLYGON (((0 0, 10 0, 10 10, 0 10, 0 0), (1 1, 2 1, 2 2, 1 1)), ((20 0, 21 0, 21 1, 20 0)))");
+		BasicOutputBuffer buffer = new BasicOutputBuffer();
+		GeoJsonGeometryWriter.write(geometry, new BsonBinaryWriter(buffer));
+
+		Geometry fromBson = GeoJsonGeometryReader.read(new BsonBinaryReader(ByteBuffer.wrap(buffer.toByteArray())), geometryFactory);
+		Geometry fromDocument = GeoJsonGeometryReader.read(Document.parse(toJson(geometry)), geometryFactory);
+
+		assertThat(fromBson.equalsExact(geometry)).isTrue();
+		assertThat(fromDocument.equalsExact(geometry)).isTrue();
+	}
+
+	private String toJson(Geometry geometry) throws Exception {
+		StringWriter out = new StringWriter();
+		try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+			GeoJsonGeometryWriter.write(geometry, generator);
+		}
+		return out.toString();
+	}
+}
@@ -0,0 +1,94 @@
+package com.trimble.area.geojson.geometry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.trimble.area.geojson.config.GeometryConfig;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+class ShapeCodecTests {
+
+	private final GeometryFactory geometryFactory = new GeometryConfig().geometryFactory();
+
+	@Test
+	void roundTripsSnappedGeometriesExactly() throws Exception {
+		String[] wkts = {
+				"POLYGON ((-111.585 48.998, -111.5 49, -111.5 48.5, -111.585 48.998), "
+						+ "(-111.55 48.9, -111.52 48.9, -111.52 48.8, -111.55 48.9))",
+				"MULTIPOLYGON (((0 0, 1 0, 1 1, 0 0)), ((-179.999 -89.5, 179.999 -89.5, 0 89.999, -179.999 -89.5)))",
+				"POINT (1.5 -2.25)",
+				"GEOMETRYCOLLECTION (POINT (1 1), LINESTRING (0 0, 1 1))",
+				"MULTIPOLYGON EMPTY",
+		};
+		for (String wkt : wkts) {
+			Geometry geometry = WktParser.read(wkt, geometryFactory);
+
+			Geometry decoded = ShapeCodec.decode(ShapeCodec.encode(geometry, GeometryConfig.PRECISION_SCALE),
+					geometryFactory);
+
+			assertThat(decoded.equalsExact(geometry)).as(wkt).isTrue();
+		}
+	}
+
+	@Test
+	void writesGeoJsonLikeTheDecodedGeometry() throws Exception {
+		String[] wkts = {
+				"POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0), (2 2, 2 4, 4 4, 4 2, 2 2))",
+				"MULTIPOLYGON (((0 0, 1 0, 1 1, 0 0)), ((5 5, 6 5, 6 6, 5 5)))",
+				"MULTIPOINT ((1 2), EMPTY)",
+				"MULTILINESTRING ((0 0, 1 1), (2 2, 3 3))",
+				"GEOMETRYCOLLECTION (POINT (-1.5 0.25), POLYGON EMPTY)",
+				"POINT EMPTY",
+		};
+		for (String wkt : wkts) {
+			Geometry geometry = WktParser.read(wkt, geometryFactory);
+			byte[] shape = ShapeCodec.encode(geometry, GeometryConfig.PRECISION_SCALE);
+
+			assertThat(json(generator -> ShapeCodec.writeGeoJson(shape, generator)))
+					.as(wkt).isEqualTo(json(generator -> GeoJsonGeometryWriter.write(geometry, generator)));
+		}
+	}
+
+	@Test
+	void storesSmallDeltasInFewBytes() throws Exception {
+		Geometry polygon = WktParser.read("POLYGON ((-97.001 32.001, -97 32.001, -97 32, -97.001 32.001))",
+				geometryFactory);
+
+		byte[] shape = ShapeCodec.encode(polygon, GeometryConfig.PRECISION_SCALE);
+
+		assertThat(shape.length).isLessThan(polygon.getNumPoints() * 16);
+	}
+
+	@Test
+	void rejectsCorruptShapes() throws Exception {
+		byte[] shape = ShapeCodec.encode(WktParser.read("POLYGON ((0 0, 1 0, 1 1, 0 0))", geometryFactory),
+				GeometryConfig.PRECISION_SCALE);
+
+		assertThatThrownBy(() -> ShapeCodec.decode(Arrays.copyOf(shape, shape.length - 1), geometryFactory))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> ShapeCodec.decode(new byte[] {9}, geometryFactory))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static String json(GeneratorConsumer writer) throws IOException {
+		StringWriter out = new StringWriter();
+		try (JsonGenerator generator = new JsonFactory().createGenerator(out)) {
+			writer.accept(generator);
+		}
+		return out.toString();
+	}
+
+	@FunctionalInterface
+	private interface GeneratorConsumer {
+
+		void accept(JsonGenerator generator) throws IOException;
+	}
+}
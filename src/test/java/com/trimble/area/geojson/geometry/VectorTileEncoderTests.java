@@ -0,0 +1,40 @@
+package com.trimble.area.geojson.geometry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.io.WKTReader;
+
+class VectorTileEncoderTests {
+
+	// MoveTo(1) 0,0; LineTo(3) +10,0 0,+10 -10,0; ClosePath, zigzag-encoded
+	private static final byte[] SQUARE_COMMANDS = {9, 0, 0, 26, 20, 0, 0, 20, 19, 0, 15};
+
+	private final WKTReader wktReader = new WKTReader(new GeometryFactory());
+
+	@Test
+	void encodesExteriorRingsClockwiseOnScreen() throws Exception {
+		byte[] clockwise = encode("POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0))");
+		byte[] counterClockwise = encode("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))");
+
+		assertThat(clockwise).containsSubsequence(SQUARE_COMMANDS);
+		assertThat(counterClockwise).isEqualTo(clockwise);
+	}
+
+	@Test
+	void dropsRingsThatCollapsed() throws Exception {
+		VectorTileEncoder encoder = new VectorTileEncoder("areas", 4096);
+
+		assertThat(encoder.addFeature(wktReader.read("POLYGON ((0 0, 0.2 0, 0.2 0.2, 0 0))"), Map.of())).isFalse();
+		assertThat(encoder.isEmpty()).isTrue();
+	}
+
+	private byte[] encode(String wkt) throws Exception {
+		VectorTileEncoder encoder = new VectorTileEncoder("areas", 4096);
+		assertThat(encoder.addFeature(wktReader.read(wkt), Map.of("areaId", "a"))).isTrue();
+		return encoder.encode();
+	}
+}
@@ -0,0 +1,75 @@
+package com.trimble.area.geojson.geometry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.trimble.area.geojson.config.GeometryConfig;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
+
+class WktParserTests {
+
+	private final GeometryFactory geometryFactory = new GeometryConfig().geometryFactory();
+	private final WKTReader wktReader = new WKTReader(new GeometryFactory());
+
+	@Test
+	void readsEveryGeometryTypeLikeWktReader() throws Exception {
+		String[] wkts = {
+				"POINT (1.5 -2)",
+				"POINT EMPTY",
+				"LINESTRING (0 0, 1 1, 2 0)",
+				"POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0), (2 2, 2 4, 4 4, 4 2, 2 2))",
+				"MULTIPOINT ((1 2), (3 4))",
+				"MULTIPOINT (1 2, 3 4)",
+				"MULTILINESTRING ((0 0, 1 1), (2 2, 3 3))",
+				"MULTIPOLYGON (((0 0, 1 0, 1 1, 0 0)), ((5 5, 6 5, 6 6, 5 5)))",
+				"GEOMETRYCOLLECTION (POINT (1 1), LINESTRING (0 0, 1 1))",
+				"MULTIPOLYGON EMPTY",
+		};
+		for (String wkt : wkts) {
+			assertThat(WktParser.read(wkt, new GeometryFactory()).equalsExact(wktReader.read(wkt)))
+					.as(wkt).isTrue();
+		}
+	}
+
+	@Test
+	void roundsOrdinatesToThePrecisionModelIntoPackedSequences() throws Exception {
+		Geometry geometry = WktParser.read("POLYGON Z ((-111.585171154 48.9979003511 5, -111.5 49.0000185 5, "
+				+ "-111.5 48.5 5, -111.585171154 48.9979003511 5))", geometryFactory);
+
+		LineString shell = ((Polygon) geometry).getExteriorRing();
+		assertThat(shell.getCoordinateSequence()).isInstanceOf(PackedCoordinateSequence.Double.class);
+		assertThat(shell.getCoordinateSequence().getDimension()).isEqualTo(2);
+		assertThat(shell.getCoordinateN(0).getX()).isEqualTo(-111.585);
+		assertThat(shell.getCoordinateN(0).getY()).isEqualTo(48.998);
+		assertThat(shell.getCoordinateN(1).getY()).isEqualTo(49.0);
+	}
+
+	@Test
+	void readsNumbersExactlyLikeDoubleParsing() throws Exception {
+		String[] numbers = {"0", "-0.5", ".25", "123456789012345", "1234567890.123456789", "1e-7", "-2.5E3",
+				"0.000000000000000000000000123", "48.9979003511"};
+		for (String number : numbers) {
+			Geometry point = WktParser.read("POINT (" + number + " 0)", new GeometryFactory());
+			assertThat(point.getCoordinate().getX()).as(number).isEqualTo(Double.parseDouble(number));
+		}
+	}
+
+	@Test
+	void rejectsMalformedText() {
+		assertThatThrownBy(() -> WktParser.read("POLYGON ((0 0, 1 0, 1 1))", geometryFactory))
+				.isInstanceOf(ParseException.class);
+		assertThatThrownBy(() -> WktParser.read("POINT (1 -)", geometryFactory))
+				.isInstanceOf(ParseException.class);
+		assertThatThrownBy(() -> WktParser.read("POINT (1 2) x", geometryFactory))
+				.isInstanceOf(ParseException.class);
+		assertThatThrownBy(() -> WktParser.read("CIRCLE (1 2)", geometryFactory))
+				.isInstanceOf(ParseException.class);
+	}
+}
@@ -0,0 +1,43 @@
+package com.trimble.area.geojson.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+class GeoMetricsTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void registersServiceMetersWhileEnabled() {
+		GeoMetrics geoMetrics = geoMetrics(true);
+
+		geoMetrics.counter("geo.test.count", "Test counter").increment();
+		geoMetrics.gauge("geo.test.size", "Test gauge", new AtomicInteger(3), AtomicInteger::get, "type", "a");
+
+		assertThat(meterRegistry.counter("geo.test.count").count()).isEqualTo(1);
+		assertThat(meterRegistry.get("geo.test.size").tag("type", "a").gauge().value()).isEqualTo(3);
+	}
+
+	@Test
+	void registersNothingWhileDisabled() {
+		GeoMetrics geoMetrics = geoMetrics(false);
+
+		geoMetrics.counter("geo.test.count", "Test counter").increment();
+		geoMetrics.timer("geo.test.time", "Test timer", "mode", "full").record(() -> { });
+		geoMetrics.gauge("geo.test.size", "Test gauge", new AtomicInteger(3), AtomicInteger::get);
+		geoMetrics.recordStage("union", 1000);
+
+		assertThat(meterRegistry.getMeters()).isEmpty();
+	}
+
+	private GeoMetrics geoMetrics(boolean enabled) {
+		return new GeoMetrics(meterRegistry, new DefaultListableBeanFactory().getBeanProvider(ObservationRegistry.class),
+				enabled);
+	}
+}
@@ -0,0 +1,70 @@
+package com.trimble.area.geojson.postal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.BitSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class PostalCodeSetTests {
+
+	@Test
+	void mergesOverlappingAndAdjacentRanges() {
+		PostalCodeSet set = PostalCodeSet.builder().add(100, 199).add(200, 250).add(150, 160).add(7).build();
+
+		assertThat(set.size()).isEqualTo(152);
+		assertThat(set.contains(7)).isTrue();
+		assertThat(set.contains(8)).isFalse();
+		assertThat(set.contains(250)).isTrue();
+		assertThat(set.contains(251)).isFalse();
+	}
+
+	@Test
+	void differenceSplitsRanges() {
+		PostalCodeSet include = PostalCodeSet.builder().add(75000, 79999).build();
+		PostalCodeSet exclude = PostalCodeSet.builder().add(74000, 75001).add(75010).add(79990, 80000).build();
+
+		PostalCodeSet result = include.difference(exclude);
+
+		assertThat(result.size()).isEqualTo(5000 - 2 - 1 - 10);
+		assertThat(result.contains(75001)).isFalse();
+		assertThat(result.contains(75002)).isTrue();
+		assertThat(result.contains(75010)).isFalse();
+		assertThat(result.contains(79989)).isTrue();
+		assertThat(result.contains(79990)).isFalse();
+	}
+
+	@Test
+	void retainsOnlyKnownCodesAndFormatsThem() {
+		BitSet known = new BitSet();
+		known.set(501);
+		known.set(75001, 75004);
+		PostalCodeSet set = PostalCodeSet.builder().add(0, 99999).build();
+
+		assertThat(set.retainAll(known).toCodes()).isEqualTo(List.of("00501", "75001", "75002", "75003"));
+	}
+
+	@Test
+	void subSetClipsRangesToTheBounds() {
+		PostalCodeSet set = PostalCodeSet.builder().add(74990, 75010).add(75050).add(75098, 75120).build();
+
+		PostalCodeSet prefix = set.subSet(75000, 75099);
+
+		assertThat(prefix.size()).isEqualTo(11 + 1 + 2);
+		assertThat(prefix.contains(74999)).isFalse();
+		assertThat(prefix.contains(75000)).isTrue();
+		assertThat(prefix.contains(75099)).isTrue();
+		assertThat(prefix.contains(75100)).isFalse();
+		assertThat(set.subSet(75011, 75049).isEmpty()).isTrue();
+	}
+
+	@Test
+	void parsesOnlyFiveDigitCodes() {
+		assertThat(PostalCodeSet.parse("00501")).isEqualTo(501);
+		assertThat(PostalCodeSet.parse("501")).isEqualTo(-1);
+		assertThat(PostalCodeSet.parse("7500A")).isEqualTo(-1);
+		assertThat(PostalCodeSet.parse(null)).isEqualTo(-1);
+	}
+
+}
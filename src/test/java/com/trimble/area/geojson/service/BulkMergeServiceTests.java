@@ -0,0 +1,52 @@
+package com.trimble.area.geojson.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.trimble.area.geojson.model.GeoData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class BulkMergeServiceTests {
+
+	private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+	private final MergePlanner mergePlanner = mock(MergePlanner.class);
+	private final BulkMergeService bulkMergeService = new BulkMergeService(mock(GeoJsonService.class), mergePlanner,
+			mock(BoundaryService.class), mock(IncrementalMergeService.class), mock(GeometryLevelService.class),
+			mock(GeoDataStore.class), objectMapper, 1, 10, 10);
+
+	@AfterEach
+	void stop() {
+		bulkMergeService.destroy();
+	}
+
+	@Test
+	void answersInvalidLinesAndFailedPlansWithErrorLines() throws Exception {
+		UUID areaId = UUID.randomUUID();
+		when(mergePlanner.plan(any())).thenThrow(new NullPointerException("postal country"));
+		String lines = "{\"id\": \"" + areaId + "\"\n"
+				+ "\n"
+				+ "{\"id\": \"" + areaId + "\"}\n";
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		bulkMergeService.merge(new ByteArrayInputStream(lines.getBytes(StandardCharsets.UTF_8)), out);
+
+		List<GeoData> answers = objectMapper.readerFor(GeoData.class)
+				.<GeoData>readValues(out.toByteArray()).readAll();
+		assertThat(answers).hasSize(2);
+		assertThat(answers.get(0).getAreaId()).isNull();
+		assertThat(answers.get(0).getErrorMessage()).startsWith("Line 1 is not a valid area");
+		assertThat(answers.get(1).getAreaId()).isEqualTo(areaId);
+		assertThat(answers.get(1).getErrorMessage()).contains("postal country");
+	}
+}
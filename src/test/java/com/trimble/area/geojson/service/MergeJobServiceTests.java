@@ -0,0 +1,78 @@
+package com.trimble.area.geojson.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.trimble.area.geojson.metrics.GeoMetrics;
+import com.trimble.area.geojson.model.Area;
+import com.trimble.area.geojson.model.MergeJob;
+import com.trimble.area.geojson.model.MergeJobStatus;
+import com.trimble.area.geojson.model.MergePriority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+class MergeJobServiceTests {
+
+	private final GeoJsonService geoJsonService = mock(GeoJsonService.class);
+	private final GeoMetrics geoMetrics = new GeoMetrics(new SimpleMeterRegistry(),
+			new DefaultListableBeanFactory().getBeanProvider(ObservationRegistry.class), false);
+	private final MergeJobService mergeJobService = new MergeJobService(geoJsonService, geoMetrics, 100, 2,
+			Duration.ofHours(1));
+
+	@AfterEach
+	void stop() {
+		mergeJobService.stop();
+	}
+
+	@Test
+	void runsJobsOfOneAreaOneAfterTheOther() throws Exception {
+		UUID areaId = UUID.randomUUID();
+		Area older = area(areaId, "older");
+		Area newer = area(areaId, "newer");
+		List<String> events = new CopyOnWriteArrayList<>();
+		when(geoJsonService.mergePolygon(any())).thenAnswer(invocation -> {
+			Area area = invocation.getArgument(0);
+			events.add("start " + area.getName());
+			Thread.sleep(area == older ? 300 : 10);
+			events.add("end " + area.getName());
+			return null;
+		});
+		mergeJobService.start();
+
+		MergeJob first = mergeJobService.submit(older, MergePriority.INTERACTIVE);
+		while (first.getStatus() == MergeJobStatus.QUEUED) {
+			Thread.sleep(5);
+		}
+		MergeJob second = mergeJobService.submit(newer, MergePriority.INTERACTIVE);
+		awaitFinished(first);
+		awaitFinished(second);
+
+		assertThat(second.getStatus()).isEqualTo(MergeJobStatus.COMPLETED);
+		assertThat(events).containsExactly("start older", "end older", "start newer", "end newer");
+	}
+
+	private static Area area(UUID id, String name) {
+		Area area = new Area();
+		area.setId(id);
+		area.setName(name);
+		return area;
+	}
+
+	private static void awaitFinished(MergeJob job) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (job.getFinishedAt() == null && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+		assertThat(job.getFinishedAt()).as("job %s finished", job.getId()).isNotNull();
+	}
+}
@@ -0,0 +1,99 @@
+package com.trimble.area.geojson.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.trimble.area.geojson.boundary.BaseLayerProvider;
+import com.trimble.area.geojson.model.Area;
+import com.trimble.area.geojson.model.BoundaryType;
+import com.trimble.area.geojson.model.MergeInputs;
+import com.trimble.area.geojson.postal.PostalIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class MergePlannerTests {
+
+	private final MergePlanner mergePlanner = new MergePlanner(new PostalIndex(new DefaultResourceLoader(), null),
+			new BaseLayerProvider());
+
+	@Test
+	void keepsOnlyFiveDigitFipsCounties() {
+		Area area = area();
+		area.setCounties(List.of(county(" 48113 ", true), county("4811", true), county("48A13", true),
+				county(null, true), county("06037", false)));
+
+		MergeInputs inputs = mergePlanner.plan(area);
+
+		assertThat(inputs.includes(BoundaryType.COUNTY)).containsExactly("48113");
+		assertThat(inputs.excludes(BoundaryType.COUNTY)).containsExactly("06037");
+	}
+
+	@Test
+	void onlySubtractsCountiesThatAreIncludedAndExcluded() {
+		Area area = area();
+		area.setCounties(List.of(county("48113", true), county("48439", true), county("48439", false)));
+
+		MergeInputs inputs = mergePlanner.plan(area);
+
+		assertThat(inputs.includes(BoundaryType.COUNTY)).containsExactly("48113");
+		assertThat(inputs.excludes(BoundaryType.COUNTY)).containsExactly("48439");
+	}
+
+	@Test
+	void keysCitiesByNameAndStateOfTheirCountry() {
+		ReflectionTestUtils.setField(mergePlanner, "cityEnabled", true);
+		Area area = area();
+		area.setCities(List.of(city(" Dallas ", "tx", "us", true), city("Toronto", "ON", "CA", true),
+				city("Austin", "ON", "US", true), city("Lyon", "ARA", "FR", true), city(" ", "TX", "US", true),
+				city("Plano", "TX", "US", true), city("Plano", "TX", "US", false)));
+
+		MergeInputs inputs = mergePlanner.plan(area);
+
+		assertThat(inputs.includes(BoundaryType.CITY)).containsExactly("DALLAS|TX", "TORONTO|ON");
+		assertThat(inputs.excludes(BoundaryType.CITY)).containsExactly("PLANO|TX");
+	}
+
+	@Test
+	void ignoresCitiesWhileCityBoundariesAreDisabled() {
+		Area area = area();
+		area.setCities(List.of(city("Dallas", "TX", "US", true), city("Plano", "TX", "US", false)));
+		area.setCounties(List.of(county("48113", true)));
+
+		MergeInputs inputs = mergePlanner.plan(area);
+
+		assertThat(inputs.includes(BoundaryType.CITY)).isEmpty();
+		assertThat(inputs.excludes(BoundaryType.CITY)).isEmpty();
+		assertThat(inputs.includes(BoundaryType.COUNTY)).containsExactly("48113");
+	}
+
+	private static Area area() {
+		Area area = new Area();
+		area.setId(UUID.randomUUID());
+		return area;
+	}
+
+	private static Area.County county(String code, boolean include) {
+		Area.County county = new Area.County();
+		county.setCode(code);
+		county.setInclude(include);
+		return county;
+	}
+
+	private static Area.City city(String name, String state, String country, boolean include) {
+		Area.City city = new Area.City();
+		city.setName(name);
+		city.setState(codeName(state));
+		city.setCountry(codeName(country));
+		city.setInclude(include);
+		return city;
+	}
+
+	private static Area.CodeName codeName(String code) {
+		Area.CodeName codeName = new Area.CodeName();
+		codeName.setCode(code);
+		return codeName;
+	}
+}